@@ -15,4 +15,11 @@ public class ApnsConfig {
     private String teamId;
     private String bundleId;
     private boolean production = false;
+    /** Host replacing Apple's production/development host, for a local fake APNs server. Leave empty in production. */
+    private String host;
+    private int port = 443;
+    /** PEM certificate the overridden host presents, when it is not signed by a public CA. */
+    private String trustedServerCertificatePath;
+    /** Notifications sent and not yet answered by APNs, across all pushes being sent. */
+    private int maxInFlight = 1000;
 }
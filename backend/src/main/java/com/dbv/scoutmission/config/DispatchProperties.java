@@ -0,0 +1,22 @@
+package com.dbv.scoutmission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.dispatch")
+public class DispatchProperties {
+
+    /**
+     * Single-threaded dispatch lanes. Each game always uses the same lane, so its events are
+     * broadcast in the order they were committed; more lanes let more games dispatch in parallel.
+     */
+    private int lanes = 4;
+    /**
+     * Events waiting per lane. When a lane is full, the committing request thread waits for room,
+     * which slows producers down instead of dropping or reordering events.
+     */
+    private int queueCapacity = 1000;
+}
@@ -11,4 +11,10 @@ public class FcmConfig {
     private boolean enabled = false;
     private String credentialsPath;
     private String projectId;
+    /** Tokens per multicast; FCM accepts at most 500. */
+    private int chunkSize = 500;
+    /** Multicasts in flight at once, across all notifications being sent. */
+    private int maxConcurrentChunks = 4;
+    /** Base URL replacing https://fcm.googleapis.com, for a local fake FCM server. Leave empty in production. */
+    private String endpoint;
 }
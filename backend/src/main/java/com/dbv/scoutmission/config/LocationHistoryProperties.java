@@ -0,0 +1,17 @@
+package com.dbv.scoutmission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.location-history")
+public class LocationHistoryProperties {
+
+    /** Daily partitions to keep created ahead of the current UTC day. */
+    private int partitionsAhead = 2;
+
+    /** Days of history to keep; older daily partitions are dropped. 0 keeps history forever. */
+    private int retentionDays = 0;
+}
@@ -0,0 +1,29 @@
+package com.dbv.scoutmission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /** Rows claimed per poll. */
+    private int batchSize = 50;
+    /** Threads delivering claimed rows on this node. */
+    private int workers = 4;
+    /**
+     * How long a claimed row is hidden from other workers. Must exceed the slowest delivery,
+     * otherwise another worker delivers the row a second time.
+     */
+    private Duration lease = Duration.ofMinutes(2);
+
+    /** Delivery attempts, including the first, before a row is marked failed. */
+    private int maxAttempts = 8;
+    private Duration initialBackoff = Duration.ofSeconds(5);
+    private double backoffMultiplier = 2.0;
+    private Duration maxBackoff = Duration.ofMinutes(10);
+}
@@ -0,0 +1,22 @@
+package com.dbv.scoutmission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.proximity")
+public class ProximityProperties {
+
+    /** Distance from a base within which a team counts as present. Also the index grid cell size. */
+    private double radiusMeters = 30;
+
+    /** Reject submissions to bases with requirePresenceToSubmit unless the team's last fix is near the base. */
+    private boolean enforcePresence = false;
+
+    /** Location fixes older than this do not count as presence. */
+    private Duration maxFixAge = Duration.ofMinutes(2);
+}
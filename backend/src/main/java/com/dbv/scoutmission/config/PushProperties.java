@@ -0,0 +1,19 @@
+package com.dbv.scoutmission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.push")
+public class PushProperties {
+
+    /** Invalid tokens cleared per UPDATE statement. */
+    private int pruneBatchSize = 500;
+
+    /** Reviews of one team within this window of the first are sent as one push. */
+    private Duration reviewCoalesceWindow = Duration.ofSeconds(5);
+}
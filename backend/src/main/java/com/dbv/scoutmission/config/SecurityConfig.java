@@ -1,6 +1,7 @@
 package com.dbv.scoutmission.config;
 
 import com.dbv.scoutmission.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -50,9 +51,13 @@ public class SecurityConfig {
                 })
             )
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses finish on an async dispatch; the request was authorized on the first one
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/ws/**").permitAll()
+                .requestMatchers("/ws/**", "/ws-native").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/player/**").hasRole("PLAYER")
                 .requestMatchers("/api/games/**", "/api/invites/**", "/api/users/**")
                 .hasAnyRole("ADMIN", "OPERATOR")
@@ -75,6 +80,7 @@ public class SecurityConfig {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/api/**", config);
         source.registerCorsConfiguration("/ws/**", config);
+        source.registerCorsConfiguration("/ws-native", config);
         return source;
     }
 
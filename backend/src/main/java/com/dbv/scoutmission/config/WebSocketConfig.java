@@ -1,39 +1,131 @@
 package com.dbv.scoutmission.config;
 
+import com.dbv.scoutmission.websocket.BinaryTransportHandshakeInterceptor;
+import com.dbv.scoutmission.websocket.FrameEncodingInterceptor;
+import com.dbv.scoutmission.websocket.SlowConsumerEvictionTracker;
 import com.dbv.scoutmission.websocket.WebSocketAuthChannelInterceptor;
+import com.dbv.scoutmission.websocket.WebSocketSessionRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
 
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public static final String SOCKJS_ENDPOINT = "/ws";
+    public static final String NATIVE_ENDPOINT = "/ws-native";
+
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
     private final WebSocketAuthChannelInterceptor webSocketAuthChannelInterceptor;
+    private final WebSocketProperties webSocketProperties;
+    private final SlowConsumerEvictionTracker slowConsumerEvictionTracker;
+    private final FrameEncodingInterceptor frameEncodingInterceptor;
+    private final BinaryTransportHandshakeInterceptor binaryTransportHandshakeInterceptor;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    /** Lazy because the scheduler bean is created by the broker configuration this class feeds. */
+    @Autowired
+    public void setMessageBrokerTaskScheduler(
+            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        WebSocketProperties.Relay relay = webSocketProperties.getRelay();
+        WebSocketProperties.Heartbeat heartbeat = webSocketProperties.getHeartbeat();
+        if (relay.isEnabled()) {
+            // Subscriptions are still authorized by the inbound interceptor before they reach the relay
+            config.enableStompBrokerRelay("/topic")
+                    .setSystemHeartbeatSendInterval(heartbeat.getServerInterval().toMillis())
+                    .setSystemHeartbeatReceiveInterval(heartbeat.getClientInterval().toMillis())
+                    .setRelayHost(relay.getHost())
+                    .setRelayPort(relay.getPort())
+                    .setClientLogin(relay.getClientLogin())
+                    .setClientPasscode(relay.getClientPasscode())
+                    .setSystemLogin(relay.getSystemLogin())
+                    .setSystemPasscode(relay.getSystemPasscode())
+                    .setVirtualHost(relay.getVirtualHost());
+        } else {
+            config.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[]{
+                            heartbeat.getServerInterval().toMillis(), heartbeat.getClientInterval().toMillis()})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // The outbound channel is a thread pool; without this, two frames for the same session can
+        // be written by different threads out of seq order and clients would report false gaps.
+        config.setPreservePublishOrder(true);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws")
+        registry.addEndpoint(SOCKJS_ENDPOINT)
                 .setAllowedOrigins(allowedOrigins.split(","))
+                .addInterceptors(binaryTransportHandshakeInterceptor)
                 .withSockJS();
+        if (webSocketProperties.getNativeEndpoint().isEnabled()) {
+            // No SockJS fallback: the container negotiates permessage-deflate with clients that offer it
+            registry.addEndpoint(NATIVE_ENDPOINT)
+                    .setAllowedOrigins(allowedOrigins.split(","))
+                    .addInterceptors(binaryTransportHandshakeInterceptor);
+        }
+    }
+
+    /** Message and send limits of the servlet container's WebSocket implementation. */
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        WebSocketProperties.Container container = webSocketProperties.getContainer();
+        ServletServerContainerFactoryBean factory = new ServletServerContainerFactoryBean();
+        factory.setMaxTextMessageBufferSize(container.getMaxTextMessageBufferSize());
+        factory.setMaxBinaryMessageBufferSize(container.getMaxBinaryMessageBufferSize());
+        factory.setAsyncSendTimeout(container.getAsyncSendTimeout().toMillis());
+        return factory;
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthChannelInterceptor);
+        applyPool(registration, webSocketProperties.getInbound());
+        registration.interceptors(webSocketAuthChannelInterceptor, frameEncodingInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        applyPool(registration, webSocketProperties.getOutbound());
+        registration.interceptors(frameEncodingInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A session that cannot keep up is closed instead of holding an outbound thread, so one
+        // slow phone does not stall fan-out to everyone else in the game.
+        registration.setSendTimeLimit((int) webSocketProperties.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit(webSocketProperties.getSendBufferSizeLimit())
+                .setMessageSizeLimit(webSocketProperties.getMessageSizeLimit())
+                .addDecoratorFactory(slowConsumerEvictionTracker)
+                .addDecoratorFactory(sessionRegistry);
+    }
+
+    private void applyPool(ChannelRegistration registration, WebSocketProperties.ChannelPool pool) {
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(Math.max(pool.getCorePoolSize(), pool.getMaxPoolSize()))
+                .queueCapacity(pool.getQueueCapacity());
     }
 }
@@ -0,0 +1,130 @@
+package com.dbv.scoutmission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketProperties {
+
+    private Replay replay = new Replay();
+
+    private Relay relay = new Relay();
+
+    /** Executor for frames received from clients (CONNECT, SUBSCRIBE, ...). */
+    private ChannelPool inbound = new ChannelPool();
+
+    /** Executor that writes broker frames to client sessions. */
+    private ChannelPool outbound = new ChannelPool();
+
+    /**
+     * Longest a single session may block an outbound thread while sending. Frames for a session
+     * that is already sending are buffered; past this limit or the buffer limit the session is closed.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /** Bytes buffered per session while a previous send is still in progress. */
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    /** Largest inbound STOMP frame accepted from a client. */
+    private int messageSizeLimit = 64 * 1024;
+
+    private AuthCache authCache = new AuthCache();
+
+    private NativeEndpoint nativeEndpoint = new NativeEndpoint();
+
+    private Heartbeat heartbeat = new Heartbeat();
+
+    private Container container = new Container();
+
+    @Data
+    public static class Replay {
+        /** Frames kept per game topic for replay to reconnecting subscribers. */
+        private int bufferSize = 256;
+        /** Buffers of games that have not broadcast for this long are dropped. */
+        private Duration idleTtl = Duration.ofHours(6);
+    }
+
+    @Data
+    public static class Relay {
+        /**
+         * Relay /topic destinations to an external STOMP broker (ActiveMQ, RabbitMQ) instead of the
+         * in-process simple broker, so every backend node sees every broadcast.
+         */
+        private boolean enabled = false;
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        /** STOMP host header; some brokers (RabbitMQ) use it to select the virtual host. */
+        private String virtualHost;
+    }
+
+    @Data
+    public static class AuthCache {
+        /** Entries kept per cache (game access decisions, player existence). */
+        private long maxSize = 10000;
+        /** Upper bound on how long a decision is reused without being invalidated. */
+        private Duration ttl = Duration.ofMinutes(10);
+        /**
+         * TTL used instead of {@code ttl} when the relay is enabled. Invalidations after a commit
+         * only reach the cache of the node that made the change; other nodes keep serving a revoked
+         * operator grant or a deleted player until the entry expires, so this is the longest a
+         * revocation can take to apply cluster-wide.
+         */
+        private Duration relayTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Heartbeat {
+        /** How often the broker sends heartbeats to clients that accept them. 0 disables. */
+        private Duration serverInterval = Duration.ofSeconds(10);
+        /**
+         * How often clients are asked to send heartbeats. The broker closes a session that stays
+         * silent for three intervals. 0 disables.
+         */
+        private Duration clientInterval = Duration.ofSeconds(10);
+        /**
+         * Sessions with no inbound frame (heartbeats included) for this long are closed by the
+         * session registry. Catches clients that did not negotiate heartbeats and dead sockets
+         * behind the relay, where the broker's own check does not apply.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class NativeEndpoint {
+        /**
+         * Expose STOMP on {@code /ws-native} as a plain WebSocket endpoint next to SockJS on
+         * {@code /ws}. Native clients skip the SockJS framing, can receive binary (CBOR) frames and
+         * get permessage-deflate from the servlet container when they offer it in the handshake.
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Container {
+        /**
+         * Buffer the servlet container uses to assemble one incoming message. Kept in line with
+         * {@code messageSizeLimit}; STOMP frames from clients are small.
+         */
+        private int maxTextMessageBufferSize = 64 * 1024;
+        private int maxBinaryMessageBufferSize = 64 * 1024;
+        /** Container-level timeout for a single asynchronous send. */
+        private Duration asyncSendTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class ChannelPool {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+        /** Bounded so a burst cannot grow memory without limit; the pool grows past core size once full. */
+        private int queueCapacity = 10000;
+    }
+}
@@ -1,8 +1,6 @@
 package com.dbv.scoutmission.controller;
 
-import com.dbv.scoutmission.dto.export.GameExportDto;
 import com.dbv.scoutmission.dto.request.CreateGameRequest;
-import com.dbv.scoutmission.dto.request.GameImportRequest;
 import com.dbv.scoutmission.dto.request.UpdateGameRequest;
 import com.dbv.scoutmission.dto.request.UpdateGameStatusRequest;
 import com.dbv.scoutmission.dto.response.GameResponse;
@@ -12,9 +10,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -76,17 +78,25 @@ public class GameController {
     }
 
     @GetMapping("/{id}/export")
-    public ResponseEntity<GameExportDto> exportGame(@PathVariable UUID id) {
-        GameExportDto export = gameService.exportGame(id);
-        return ResponseEntity.ok()
+    public ResponseEntity<StreamingResponseBody> exportGame(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"game-" + id + ".json\"")
-                .body(export);
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gameService.exportGame(id, gzip));
     }
 
-    @PostMapping("/import")
-    public ResponseEntity<GameResponse> importGame(@Valid @RequestBody GameImportRequest request) {
-        GameResponse game = gameService.importGame(request);
+    /** Reads the body as a stream instead of binding it, so large templates are never held in memory whole. */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<GameResponse> importGame(InputStream body) throws IOException {
+        GameResponse game = gameService.importGame(body);
         return ResponseEntity.status(HttpStatus.CREATED).body(game);
     }
 }
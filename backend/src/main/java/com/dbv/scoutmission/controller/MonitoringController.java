@@ -1,11 +1,16 @@
 package com.dbv.scoutmission.controller;
 
 import com.dbv.scoutmission.dto.response.*;
+import com.dbv.scoutmission.service.LocationHistoryService;
 import com.dbv.scoutmission.service.MonitoringService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +20,7 @@ import java.util.UUID;
 public class MonitoringController {
 
     private final MonitoringService monitoringService;
+    private final LocationHistoryService locationHistoryService;
 
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardResponse> getDashboard(@PathVariable UUID gameId) {
@@ -36,6 +42,22 @@ public class MonitoringController {
         return ResponseEntity.ok(monitoringService.getLocations(gameId));
     }
 
+    @GetMapping("/locations/history")
+    public ResponseEntity<StreamingResponseBody> getLocationHistory(
+            @PathVariable UUID gameId,
+            @RequestParam UUID teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(locationHistoryService.streamTrail(gameId, teamId, from, to));
+    }
+
+    @GetMapping("/connections")
+    public ResponseEntity<ConnectionsResponse> getConnections(@PathVariable UUID gameId) {
+        return ResponseEntity.ok(monitoringService.getConnections(gameId));
+    }
+
     @GetMapping("/progress")
     public ResponseEntity<List<TeamBaseProgressResponse>> getProgress(@PathVariable UUID gameId) {
         return ResponseEntity.ok(monitoringService.getProgress(gameId));
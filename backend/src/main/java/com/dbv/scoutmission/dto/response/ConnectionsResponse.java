@@ -0,0 +1,14 @@
+package com.dbv.scoutmission.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ConnectionsResponse {
+    private int totalConnections;
+    private int operatorConnections;
+    private int playerConnections;
+}
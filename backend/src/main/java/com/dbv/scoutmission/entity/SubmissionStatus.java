@@ -5,5 +5,16 @@ public enum SubmissionStatus {
     approved,
     rejected,
     correct,
-    incorrect
+    incorrect;
+
+    /**
+     * Status of the team/base progress cell when this is the team's latest submission for the base.
+     */
+    public String progressStatus() {
+        return switch (this) {
+            case approved, correct -> "completed";
+            case rejected -> "rejected";
+            case pending, incorrect -> "submitted";
+        };
+    }
 }
@@ -0,0 +1,20 @@
+package com.dbv.scoutmission.event;
+
+import com.dbv.scoutmission.entity.ActivityEvent;
+
+import java.util.UUID;
+
+/**
+ * An activity entry was saved, optionally together with a change of a progress grid cell.
+ * The activity's lazy associations must be initialized before publishing, since listeners run
+ * after the transaction has committed.
+ */
+public record ActivityRecordedEvent(UUID gameId, ActivityEvent activity, ProgressCell progressCell) {
+
+    public ActivityRecordedEvent(UUID gameId, ActivityEvent activity) {
+        this(gameId, activity, null);
+    }
+
+    public record ProgressCell(UUID teamId, UUID baseId, String status, String submissionStatus) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.dbv.scoutmission.event;
+
+import com.dbv.scoutmission.config.DispatchProperties;
+import com.dbv.scoutmission.websocket.GameEventBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delivers domain events to WebSocket subscribers once the publishing transaction has committed,
+ * so clients never see events for rolled-back work and request threads do not pay for fan-out
+ * while holding a database connection.
+ * <p>
+ * Events run on single-threaded lanes owned by this class (not registered as beans, so they do
+ * not replace the application executor used by {@code @Async}). Each game is pinned to one lane,
+ * so its events are broadcast in commit order: two location pings, or a check-in and the progress
+ * cell of the submission that follows it, never overtake each other. Frame seq numbers are
+ * assigned at broadcast time and would otherwise hide the reordering from clients.
+ */
+@Slf4j
+@Component
+public class GameEventDispatcher {
+
+    private final GameEventBroadcaster eventBroadcaster;
+    private final List<ThreadPoolTaskExecutor> lanes;
+
+    public GameEventDispatcher(GameEventBroadcaster eventBroadcaster,
+                               DispatchProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.eventBroadcaster = eventBroadcaster;
+        int laneCount = Math.max(1, properties.getLanes());
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(createLane(i, properties.getQueueCapacity(), meterRegistry));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityRecorded(ActivityRecordedEvent event) {
+        dispatch(event.gameId(), "activity", () -> {
+            eventBroadcaster.broadcastActivityEvent(event.gameId(), event.activity());
+            ActivityRecordedEvent.ProgressCell cell = event.progressCell();
+            if (cell != null) {
+                eventBroadcaster.broadcastProgressCell(event.gameId(), cell.teamId(), cell.baseId(),
+                        cell.status(), cell.submissionStatus());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        dispatch(event.gameId(), "notification",
+                () -> eventBroadcaster.broadcastNotification(event.gameId(), event.notification()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTeamLocationUpdated(TeamLocationUpdatedEvent event) {
+        dispatch(event.gameId(), "location",
+                () -> eventBroadcaster.broadcastLocationUpdate(event.gameId(), event.location()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    private void dispatch(UUID gameId, String kind, Runnable task) {
+        lanes.get(Math.floorMod(gameId.hashCode(), lanes.size())).execute(() -> {
+            try {
+                task.run();
+            } catch (Exception ex) {
+                log.warn("Failed to dispatch {} event for game {}: {}", kind, gameId, ex.getMessage(), ex);
+            }
+        });
+    }
+
+    private static ThreadPoolTaskExecutor createLane(int index, int queueCapacity, MeterRegistry meterRegistry) {
+        String lane = String.valueOf(index);
+        Counter callerWaits = Counter.builder("scoutmission.dispatch.caller_waits")
+                .description("Events whose publishing thread waited because the lane's queue was full")
+                .tag("lane", lane)
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("event-dispatch-" + lane + "-");
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.setQueueCapacity(queueCapacity);
+        // Running the event on the caller would let it overtake the queued ones; wait for room instead
+        pool.setRejectedExecutionHandler((task, threadPool) -> {
+            if (threadPool.isShutdown()) {
+                log.warn("Dropping event for dispatch lane {}: shutting down", lane);
+                return;
+            }
+            callerWaits.increment();
+            try {
+                threadPool.getQueue().put(task);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for dispatch lane {}; event dropped", lane);
+            }
+        });
+        pool.setWaitForTasksToCompleteOnShutdown(true);
+        pool.setAwaitTerminationSeconds(10);
+        pool.initialize();
+
+        Gauge.builder("scoutmission.dispatch.queue.depth", pool, p -> p.getThreadPoolExecutor().getQueue().size())
+                .description("Events waiting to be dispatched")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        Gauge.builder("scoutmission.dispatch.active", pool, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Events currently being dispatched")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        return pool;
+    }
+}
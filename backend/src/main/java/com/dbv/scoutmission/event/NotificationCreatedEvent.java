@@ -0,0 +1,11 @@
+package com.dbv.scoutmission.event;
+
+import com.dbv.scoutmission.dto.response.NotificationResponse;
+
+import java.util.UUID;
+
+/**
+ * An operator notification was saved; it is broadcast to the game. Push goes through the outbox.
+ */
+public record NotificationCreatedEvent(UUID gameId, NotificationResponse notification) {
+}
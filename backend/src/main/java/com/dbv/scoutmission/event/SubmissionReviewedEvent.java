@@ -0,0 +1,12 @@
+package com.dbv.scoutmission.event;
+
+import com.dbv.scoutmission.entity.SubmissionStatus;
+
+import java.util.UUID;
+
+/**
+ * An operator approved or rejected a submission; the team's devices are told by push.
+ */
+public record SubmissionReviewedEvent(UUID gameId, String gameName, UUID teamId, UUID submissionId,
+                                      String challengeTitle, SubmissionStatus status) {
+}
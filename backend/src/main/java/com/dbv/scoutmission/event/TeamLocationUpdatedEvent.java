@@ -0,0 +1,8 @@
+package com.dbv.scoutmission.event;
+
+import com.dbv.scoutmission.websocket.GameEventFrame;
+
+import java.util.UUID;
+
+public record TeamLocationUpdatedEvent(UUID gameId, GameEventFrame.LocationData location) {
+}
@@ -2,6 +2,9 @@ package com.dbv.scoutmission.repository;
 
 import com.dbv.scoutmission.entity.Assignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,5 +24,8 @@ public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
 
     Optional<Assignment> findByIdAndGameId(UUID id, UUID gameId);
 
-    void deleteByGameId(UUID gameId);
+    /** One DELETE statement instead of loading and removing every assignment. */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Assignment a WHERE a.game.id = :gameId")
+    void deleteByGameId(@Param("gameId") UUID gameId);
 }
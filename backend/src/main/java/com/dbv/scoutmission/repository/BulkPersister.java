@@ -0,0 +1,44 @@
+package com.dbv.scoutmission.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Inserts many new entities of one table at once. Ids are UUIDs generated client-side on
+ * persist, so they can be used for wiring right away, and the flush sends the rows as JDBC
+ * batches ({@code hibernate.jdbc.batch_size}, ordered inserts) instead of one round trip per
+ * {@code save}.
+ */
+@Repository
+public class BulkPersister {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Must run inside a transaction; the entities stay managed afterwards. */
+    public void persistAll(Collection<?> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        for (Object entity : entities) {
+            entityManager.persist(entity);
+        }
+        entityManager.flush();
+    }
+
+    /** Drops already flushed entities from the persistence context so a long import does not keep them all. */
+    public void detachAll(Collection<?> entities) {
+        for (Object entity : entities) {
+            entityManager.detach(entity);
+        }
+    }
+
+    /** A proxy for wiring associations to a row written earlier, without loading it. */
+    public <T> T reference(Class<T> type, UUID id) {
+        return entityManager.getReference(type, id);
+    }
+}
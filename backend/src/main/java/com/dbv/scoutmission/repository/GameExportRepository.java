@@ -0,0 +1,123 @@
+package com.dbv.scoutmission.repository;
+
+import com.dbv.scoutmission.entity.AnswerType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Cursor reads for game export. Rows are handed to the caller one at a time and never collected,
+ * so a large game can be written out with flat memory. Every query orders by creation time, which
+ * is what the export's positional temp ids ({@code challenge_1}, ...) are numbered by; the id
+ * lists and the row streams therefore agree. Must run inside a transaction for the fetch size to
+ * take effect.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GameExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<UUID> findChallengeIds(UUID gameId) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM challenges WHERE game_id = ? ORDER BY created_at, id", UUID.class, gameId);
+    }
+
+    public List<UUID> findTeamIds(UUID gameId) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM teams WHERE game_id = ? ORDER BY created_at, id", UUID.class, gameId);
+    }
+
+    public void streamBases(UUID gameId, Consumer<BaseRow> handler) {
+        stream("""
+                SELECT id, name, description, lat, lng, hidden, require_presence_to_submit, fixed_challenge_id
+                FROM bases
+                WHERE game_id = ?
+                ORDER BY created_at, id
+                """, gameId, rs -> handler.accept(new BaseRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getDouble("lat"),
+                rs.getDouble("lng"),
+                rs.getBoolean("hidden"),
+                rs.getBoolean("require_presence_to_submit"),
+                rs.getObject("fixed_challenge_id", UUID.class))));
+    }
+
+    public void streamChallenges(UUID gameId, Consumer<ChallengeRow> handler) {
+        stream("""
+                SELECT id, title, description, content, completion_content, answer_type, auto_validate,
+                       correct_answer, points, location_bound
+                FROM challenges
+                WHERE game_id = ?
+                ORDER BY created_at, id
+                """, gameId, rs -> handler.accept(new ChallengeRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getString("content"),
+                rs.getString("completion_content"),
+                AnswerType.valueOf(rs.getString("answer_type")),
+                rs.getBoolean("auto_validate"),
+                rs.getString("correct_answer"),
+                rs.getInt("points"),
+                rs.getBoolean("location_bound"))));
+    }
+
+    public void streamAssignments(UUID gameId, Consumer<AssignmentRow> handler) {
+        stream("""
+                SELECT base_id, challenge_id, team_id
+                FROM assignments
+                WHERE game_id = ?
+                ORDER BY created_at, id
+                """, gameId, rs -> handler.accept(new AssignmentRow(
+                rs.getObject("base_id", UUID.class),
+                rs.getObject("challenge_id", UUID.class),
+                rs.getObject("team_id", UUID.class))));
+    }
+
+    public void streamTeams(UUID gameId, Consumer<TeamRow> handler) {
+        stream("""
+                SELECT id, name, color
+                FROM teams
+                WHERE game_id = ?
+                ORDER BY created_at, id
+                """, gameId, rs -> handler.accept(new TeamRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("color"))));
+    }
+
+    private void stream(String sql, UUID gameId, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setObject(1, gameId);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    public record BaseRow(UUID id, String name, String description, double lat, double lng, boolean hidden,
+                          boolean requirePresenceToSubmit, UUID fixedChallengeId) {
+    }
+
+    public record ChallengeRow(UUID id, String title, String description, String content, String completionContent,
+                               AnswerType answerType, boolean autoValidate, String correctAnswer, int points,
+                               boolean locationBound) {
+    }
+
+    public record AssignmentRow(UUID baseId, UUID challengeId, UUID teamId) {
+    }
+
+    public record TeamRow(UUID id, String name, String color) {
+    }
+}
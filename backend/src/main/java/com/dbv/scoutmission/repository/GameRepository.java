@@ -19,6 +19,13 @@ public interface GameRepository extends JpaRepository<Game, UUID> {
     @Query("SELECT g FROM Game g WHERE g.createdBy.id = :userId OR :userId IN (SELECT o.id FROM g.operators o)")
     List<Game> findByOperatorOrCreator(@Param("userId") UUID userId);
 
+    @Query("""
+            SELECT COUNT(g) > 0 FROM Game g
+            WHERE g.id = :gameId
+              AND (g.createdBy.id = :userId OR :userId IN (SELECT o.id FROM g.operators o))
+            """)
+    boolean existsByIdAndCreatorOrOperator(@Param("gameId") UUID gameId, @Param("userId") UUID userId);
+
     @Query("SELECT g FROM Game g JOIN g.operators o WHERE o.id = :userId")
     List<Game> findByOperatorId(@Param("userId") UUID userId);
 }
@@ -0,0 +1,72 @@
+package com.dbv.scoutmission.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the {@code outbox} table. Claiming relies on {@code FOR UPDATE SKIP LOCKED},
+ * which has no JPA equivalent, so the table is not mapped as an entity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Joins the caller's transaction, so the row commits or rolls back with the business change. */
+    public void insert(String type, String payload) {
+        jdbcTemplate.update("INSERT INTO outbox (id, type, payload) VALUES (?, ?, ?::jsonb)",
+                UUID.randomUUID(), type, payload);
+    }
+
+    /**
+     * Claims up to {@code limit} due rows, skipping rows other workers are claiming, and leases
+     * them for {@code lease} by moving their available_at forward. Increments attempts.
+     */
+    public List<OutboxRow> claim(int limit, Duration lease) {
+        return jdbcTemplate.query("""
+                UPDATE outbox o
+                SET available_at = now() + make_interval(secs => ?), attempts = o.attempts + 1
+                FROM (
+                    SELECT id FROM outbox
+                    WHERE status = 'pending' AND available_at <= now()
+                    ORDER BY available_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                ) due
+                WHERE o.id = due.id
+                RETURNING o.id, o.type, o.payload::text AS payload, o.attempts
+                """,
+                (rs, rowNum) -> new OutboxRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("type"),
+                        rs.getString("payload"),
+                        rs.getInt("attempts")),
+                lease.toSeconds(), limit);
+    }
+
+    public void delete(UUID id) {
+        jdbcTemplate.update("DELETE FROM outbox WHERE id = ?", id);
+    }
+
+    public void reschedule(UUID id, String payload, Duration delay, String error) {
+        jdbcTemplate.update("""
+                UPDATE outbox
+                SET payload = ?::jsonb, available_at = now() + make_interval(secs => ?), last_error = ?
+                WHERE id = ?
+                """, payload, delay.toMillis() / 1000.0, error, id);
+    }
+
+    public void markFailed(UUID id, String payload, String error) {
+        jdbcTemplate.update("UPDATE outbox SET status = 'failed', payload = ?::jsonb, last_error = ? WHERE id = ?",
+                payload, error, id);
+    }
+
+    public record OutboxRow(UUID id, String type, String payload, int attempts) {
+    }
+}
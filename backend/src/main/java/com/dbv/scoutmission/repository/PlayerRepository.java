@@ -2,9 +2,11 @@ package com.dbv.scoutmission.repository;
 
 import com.dbv.scoutmission.entity.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,13 +15,36 @@ public interface PlayerRepository extends JpaRepository<Player, UUID> {
 
     List<Player> findByTeamId(UUID teamId);
 
+    @Query("SELECT p.id FROM Player p WHERE p.team.id = :teamId")
+    List<UUID> findIdsByTeamId(@Param("teamId") UUID teamId);
+
+    @Query("SELECT p.id FROM Player p WHERE p.team.game.id = :gameId")
+    List<UUID> findIdsByGameId(@Param("gameId") UUID gameId);
+
     Optional<Player> findByDeviceIdAndTeamId(String deviceId, UUID teamId);
 
     Optional<Player> findByToken(String token);
 
-    List<Player> findByTeamGameIdAndPushTokenIsNotNull(UUID gameId);
+    @Query("""
+            SELECT DISTINCT new com.dbv.scoutmission.repository.PushTarget(p.pushPlatform, p.pushToken)
+            FROM Player p
+            WHERE p.team.game.id = :gameId AND p.pushToken IS NOT NULL
+            """)
+    List<PushTarget> findPushTargetsByGameId(@Param("gameId") UUID gameId);
+
+    @Query("""
+            SELECT DISTINCT new com.dbv.scoutmission.repository.PushTarget(p.pushPlatform, p.pushToken)
+            FROM Player p
+            WHERE p.team.id = :teamId AND p.pushToken IS NOT NULL
+            """)
+    List<PushTarget> findPushTargetsByTeamId(@Param("teamId") UUID teamId);
+
+    @Query("SELECT p.pushToken FROM Player p WHERE p.id IN :playerIds AND p.pushToken IS NOT NULL")
+    List<String> findPushTokensByIdIn(@Param("playerIds") Collection<UUID> playerIds);
 
-    List<Player> findByTeamIdAndPushTokenIsNotNull(UUID teamId);
+    @Modifying
+    @Query("UPDATE Player p SET p.pushToken = NULL WHERE p.pushToken IN :tokens")
+    int clearPushTokens(@Param("tokens") Collection<String> tokens);
 
     @Query("""
             SELECT p
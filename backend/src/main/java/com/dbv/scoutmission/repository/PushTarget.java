@@ -0,0 +1,7 @@
+package com.dbv.scoutmission.repository;
+
+import com.dbv.scoutmission.entity.PushPlatform;
+
+/** A device to push to. Several players (e.g. after rejoining a team) can share one. */
+public record PushTarget(PushPlatform platform, String token) {
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +20,53 @@ public interface SubmissionRepository extends JpaRepository<Submission, UUID> {
 
     List<Submission> findByTeamId(UUID teamId);
 
+    boolean existsByTeamIdAndBaseIdAndSubmittedAtAfter(UUID teamId, UUID baseId, Instant submittedAt);
+
+    /**
+     * Latest submission of every team at every base of a game, resolved by the database
+     * (DISTINCT ON over idx_submissions_team_base_latest) instead of reducing full history.
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (s.team_id, s.base_id) s.*
+            FROM submissions s
+            JOIN teams t ON t.id = s.team_id
+            WHERE t.game_id = :gameId
+            ORDER BY s.team_id, s.base_id, s.submitted_at DESC, s.id DESC
+            """, nativeQuery = true)
+    List<Submission> findLatestPerTeamAndBaseByGameId(@Param("gameId") UUID gameId);
+
+    /**
+     * Latest submission of a team at each base it has submitted to.
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (s.base_id) s.*
+            FROM submissions s
+            WHERE s.team_id = :teamId
+            ORDER BY s.base_id, s.submitted_at DESC, s.id DESC
+            """, nativeQuery = true)
+    List<Submission> findLatestPerBaseByTeamId(@Param("teamId") UUID teamId);
+
+    /**
+     * Points and completed challenge count per team, counting each challenge once no matter
+     * how many scored (approved or correct) submissions the team has for it.
+     * Teams without a scored submission are absent from the result.
+     */
+    @Query(value = """
+            SELECT scored.team_id AS "teamId",
+                   SUM(c.points) AS "points",
+                   COUNT(*) AS "completedChallenges"
+            FROM (
+                SELECT DISTINCT s.team_id, s.challenge_id
+                FROM submissions s
+                JOIN teams t ON t.id = s.team_id
+                WHERE t.game_id = :gameId
+                  AND s.status IN ('approved', 'correct')
+            ) scored
+            JOIN challenges c ON c.id = scored.challenge_id
+            GROUP BY scored.team_id
+            """, nativeQuery = true)
+    List<TeamScore> findTeamScoresByGameId(@Param("gameId") UUID gameId);
+
     @Query("SELECT s FROM Submission s WHERE s.team.game.id = :gameId AND s.status = :status")
     List<Submission> findByGameIdAndStatus(@Param("gameId") UUID gameId, @Param("status") SubmissionStatus status);
 
@@ -31,4 +79,12 @@ public interface SubmissionRepository extends JpaRepository<Submission, UUID> {
     @Query("DELETE FROM Submission s WHERE s.team.game.id = :gameId")
     @org.springframework.data.jpa.repository.Modifying
     void deleteByGameId(@Param("gameId") UUID gameId);
+
+    interface TeamScore {
+        UUID getTeamId();
+
+        long getPoints();
+
+        long getCompletedChallenges();
+    }
 }
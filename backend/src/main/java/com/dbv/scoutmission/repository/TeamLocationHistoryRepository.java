@@ -0,0 +1,130 @@
+package com.dbv.scoutmission.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the partitioned {@code team_location_history} table. It is not mapped as an
+ * entity: rows are written and read in bulk and the table is managed by partition DDL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TeamLocationHistoryRepository {
+
+    public static final String TABLE = "team_location_history";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final double COORDINATE_SCALE = 1e5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(UUID teamId, double lat, double lng, Instant recordedAt) {
+        jdbcTemplate.update("""
+                INSERT INTO team_location_history (team_id, recorded_at, resolution_s, lat_e5, lng_e5)
+                VALUES (?, ?, 0, ?, ?)
+                ON CONFLICT DO NOTHING
+                """, teamId, recordedAt.getEpochSecond(), toE5(lat), toE5(lng));
+    }
+
+    /**
+     * Streams a team's trail between two epoch-second bounds (inclusive from, exclusive to) in
+     * time order. Must be called inside a transaction so the driver honours the fetch size and
+     * does not load the whole trail into memory.
+     */
+    public void streamTrail(UUID teamId, long fromEpochSecond, long toEpochSecond, TrailPointHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("""
+                    SELECT recorded_at, resolution_s, lat_e5, lng_e5
+                    FROM team_location_history
+                    WHERE team_id = ? AND recorded_at >= ? AND recorded_at < ?
+                    ORDER BY recorded_at, resolution_s
+                    """);
+            statement.setObject(1, teamId);
+            statement.setLong(2, fromEpochSecond);
+            statement.setLong(3, toEpochSecond);
+            statement.setFetchSize(1000);
+            return statement;
+        }, (RowCallbackHandler) rs -> handler.accept(
+                rs.getLong("recorded_at"),
+                rs.getInt("resolution_s"),
+                rs.getInt("lat_e5") / COORDINATE_SCALE,
+                rs.getInt("lng_e5") / COORDINATE_SCALE));
+    }
+
+    /**
+     * Replaces rows finer than {@code bucketSeconds} recorded in [{@code fromEpochSecond},
+     * {@code toEpochSecond}) with one averaged row per team and bucket. Bounds must be aligned to
+     * the bucket width so buckets are never split between runs.
+     *
+     * @return number of downsampled rows written
+     */
+    public int downsample(int bucketSeconds, long fromEpochSecond, long toEpochSecond) {
+        return jdbcTemplate.update("""
+                WITH moved AS (
+                    DELETE FROM team_location_history
+                    WHERE resolution_s < ? AND recorded_at >= ? AND recorded_at < ?
+                    RETURNING team_id, recorded_at, lat_e5, lng_e5
+                )
+                INSERT INTO team_location_history (team_id, recorded_at, resolution_s, lat_e5, lng_e5)
+                SELECT team_id, recorded_at - recorded_at % ?, ?, round(avg(lat_e5))::int, round(avg(lng_e5))::int
+                FROM moved
+                GROUP BY team_id, recorded_at - recorded_at % ?
+                ON CONFLICT DO NOTHING
+                """, bucketSeconds, fromEpochSecond, toEpochSecond,
+                bucketSeconds, bucketSeconds, bucketSeconds);
+    }
+
+    public void deleteByGameId(UUID gameId) {
+        jdbcTemplate.update("""
+                DELETE FROM team_location_history h
+                USING teams t
+                WHERE t.id = h.team_id AND t.game_id = ?
+                """, gameId);
+    }
+
+    public void createDailyPartition(LocalDate day) {
+        long from = day.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                + " PARTITION OF " + TABLE + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+    }
+
+    public List<String> findDailyPartitionNames() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ? AND c.relname ~ '_[0-9]{8}$'
+                """, String.class, TABLE);
+    }
+
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName);
+    }
+
+    public static String partitionName(LocalDate day) {
+        return TABLE + "_" + day.format(PARTITION_SUFFIX);
+    }
+
+    public static LocalDate partitionDay(String partitionName) {
+        return LocalDate.parse(partitionName.substring(TABLE.length() + 1), PARTITION_SUFFIX);
+    }
+
+    private static int toE5(double coordinate) {
+        return (int) Math.round(coordinate * COORDINATE_SCALE);
+    }
+
+    @FunctionalInterface
+    public interface TrailPointHandler {
+        void accept(long recordedAtEpochSecond, int resolutionSeconds, double lat, double lng);
+    }
+}
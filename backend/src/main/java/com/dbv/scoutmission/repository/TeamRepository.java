@@ -2,7 +2,10 @@ package com.dbv.scoutmission.repository;
 
 import com.dbv.scoutmission.entity.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,7 +14,13 @@ public interface TeamRepository extends JpaRepository<Team, UUID> {
 
     List<Team> findByGameId(UUID gameId);
 
+    @Query("SELECT t.id FROM Team t WHERE t.game.id = :gameId")
+    List<UUID> findIdsByGameId(@Param("gameId") UUID gameId);
+
     Optional<Team> findByJoinCode(String joinCode);
 
+    @Query("SELECT t.joinCode FROM Team t WHERE t.joinCode IN :joinCodes")
+    List<String> findExistingJoinCodes(@Param("joinCodes") Collection<String> joinCodes);
+
     long countByGameId(UUID gameId);
 }
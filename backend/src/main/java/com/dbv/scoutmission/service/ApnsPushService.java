@@ -3,7 +3,9 @@ package com.dbv.scoutmission.service;
 import com.dbv.scoutmission.config.ApnsConfig;
 import com.eatthepath.pushy.apns.ApnsClient;
 import com.eatthepath.pushy.apns.ApnsClientBuilder;
+import com.eatthepath.pushy.apns.DeliveryPriority;
 import com.eatthepath.pushy.apns.PushNotificationResponse;
+import com.eatthepath.pushy.apns.PushType;
 import com.eatthepath.pushy.apns.auth.ApnsSigningKey;
 import com.eatthepath.pushy.apns.util.SimpleApnsPayloadBuilder;
 import com.eatthepath.pushy.apns.util.SimpleApnsPushNotification;
@@ -15,22 +17,42 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ApnsPushService {
 
+    /** Rejection reasons after which the same notification may succeed later. */
+    private static final Set<String> TRANSIENT_REJECTIONS =
+            Set.of("TooManyRequests", "InternalServerError", "ServiceUnavailable", "Shutdown");
+
+    /** Rejection reasons meaning the token will never work again. */
+    private static final Set<String> INVALID_TOKEN_REJECTIONS = Set.of("Unregistered", "BadDeviceToken");
+
     private final ApnsConfig apnsConfig;
     private final ResourceLoader resourceLoader;
+    private final InvalidPushTokenSink invalidTokenSink;
 
     private ApnsClient apnsClient;
+    private Semaphore inFlightPermits;
 
     @PostConstruct
     public void init() {
@@ -47,19 +69,9 @@ public class ApnsPushService {
                     apnsConfig.getTeamId(),
                     apnsConfig.getBundleId());
 
-            InputStream keyStream = resourceLoader.getResource(apnsConfig.getKeyPath()).getInputStream();
-
-            ApnsSigningKey signingKey = ApnsSigningKey.loadFromInputStream(
-                    keyStream, apnsConfig.getTeamId(), apnsConfig.getKeyId());
-
-            String host = apnsConfig.isProduction()
-                    ? ApnsClientBuilder.PRODUCTION_APNS_HOST
-                    : ApnsClientBuilder.DEVELOPMENT_APNS_HOST;
-
-            apnsClient = new ApnsClientBuilder()
-                    .setApnsServer(host)
-                    .setSigningKey(signingKey)
-                    .build();
+            try (InputStream keyStream = resourceLoader.getResource(apnsConfig.getKeyPath()).getInputStream()) {
+                initialize(ApnsSigningKey.loadFromInputStream(keyStream, apnsConfig.getTeamId(), apnsConfig.getKeyId()));
+            }
 
             log.info("APNs client initialized successfully (production={})", apnsConfig.isProduction());
         } catch (Exception e) {
@@ -67,6 +79,37 @@ public class ApnsPushService {
         }
     }
 
+    void initialize(ApnsSigningKey signingKey) throws IOException {
+        String host = apnsConfig.isProduction()
+                ? ApnsClientBuilder.PRODUCTION_APNS_HOST
+                : ApnsClientBuilder.DEVELOPMENT_APNS_HOST;
+        ApnsClientBuilder builder = new ApnsClientBuilder().setSigningKey(signingKey);
+        if (apnsConfig.getHost() != null && !apnsConfig.getHost().isBlank()) {
+            builder.setApnsServer(apnsConfig.getHost(), apnsConfig.getPort());
+            log.warn("APNs requests are sent to {}:{} instead of {}", apnsConfig.getHost(), apnsConfig.getPort(), host);
+        } else {
+            builder.setApnsServer(host);
+        }
+        String trustedCertificate = apnsConfig.getTrustedServerCertificatePath();
+        if (trustedCertificate != null && !trustedCertificate.isBlank()) {
+            // Parsed here: the builder only reads a stream in build(), after it would be closed
+            try (InputStream certificateStream = resourceLoader.getResource(trustedCertificate).getInputStream()) {
+                builder.setTrustedServerCertificateChain(CertificateFactory.getInstance("X.509")
+                        .generateCertificates(certificateStream).toArray(new X509Certificate[0]));
+            } catch (CertificateException e) {
+                throw new IOException("Invalid APNs trusted server certificate: " + trustedCertificate, e);
+            }
+        }
+
+        initialize(builder.build());
+    }
+
+    /** Sends through the given client from now on; tests pass a mock. */
+    void initialize(ApnsClient client) {
+        inFlightPermits = new Semaphore(Math.max(1, apnsConfig.getMaxInFlight()));
+        apnsClient = client;
+    }
+
     @PreDestroy
     public void shutdown() {
         if (apnsClient != null) {
@@ -79,85 +122,119 @@ public class ApnsPushService {
     }
 
     /**
-     * Send a push notification to a list of device tokens.
+     * Send a push notification to a list of device tokens and wait for APNs to answer for each.
+     * At most {@code app.apns.max-in-flight} notifications are awaiting an answer at any time,
+     * across all callers. Outcomes are logged as one summary line per call.
      *
      * @param tokens   List of APNs device tokens
      * @param title    Notification title
      * @param body     Notification body text
      * @param customData Additional data to include in the payload
+     * @return delivery counts; tokens that hit a connection error or a transient rejection
+     *         (throttling, APNs unavailable) are returned as retryable
      */
-    public void sendPush(List<String> tokens, String title, String body, Map<String, String> customData) {
+    public PushDeliveryResult sendPush(List<String> tokens, String title, String body, Map<String, String> customData) {
         if (!apnsConfig.isEnabled() || apnsClient == null) {
             log.debug("APNs disabled or not initialized, skipping push to {} tokens", tokens.size());
-            return;
+            return PushDeliveryResult.NOT_SENT;
         }
 
         if (tokens.isEmpty()) {
             log.debug("No push tokens to send to");
-            return;
+            return PushDeliveryResult.NOT_SENT;
         }
 
         String topic = apnsConfig.getBundleId();
+        String payload = buildPayload(title, body, customData);
+        Instant expiration = Instant.now().plusSeconds(86400); // 24h expiry
+        long startNanos = System.nanoTime();
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Queue<String> retryable = new ConcurrentLinkedQueue<>();
+        Map<String, AtomicInteger> rejections = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> pending = new ArrayList<>(tokens.size());
 
         for (String token : tokens) {
+            SimpleApnsPushNotification pushNotification;
             try {
-                String sanitizedToken = TokenUtil.sanitizeTokenString(token);
-                String maskedToken = maskToken(token);
+                pushNotification = new SimpleApnsPushNotification(
+                        TokenUtil.sanitizeTokenString(token), topic, payload, expiration,
+                        DeliveryPriority.IMMEDIATE, PushType.ALERT);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                rejections.computeIfAbsent("MalformedToken", reason -> new AtomicInteger()).incrementAndGet();
+                continue;
+            }
 
-                SimpleApnsPayloadBuilder payloadBuilder = new SimpleApnsPayloadBuilder();
-                payloadBuilder.setAlertTitle(title);
-                payloadBuilder.setAlertBody(body);
-                payloadBuilder.setSound("default");
+            // Waits while the window is full, so a large fan-out never queues more than
+            // max-in-flight notifications in the client's channel buffers
+            if (!acquirePermit()) {
+                retryable.add(token);
+                continue;
+            }
+            CompletableFuture<PushNotificationResponse<SimpleApnsPushNotification>> future;
+            try {
+                future = apnsClient.sendNotification(pushNotification);
+            } catch (Exception e) {
+                inFlightPermits.release();
+                retryable.add(token);
+                continue;
+            }
 
-                if (customData != null) {
-                    for (Map.Entry<String, String> entry : customData.entrySet()) {
-                        payloadBuilder.addCustomProperty(entry.getKey(), entry.getValue());
+            pending.add(future.whenComplete((response, throwable) -> {
+                inFlightPermits.release();
+                if (throwable != null) {
+                    retryable.add(token);
+                    rejections.computeIfAbsent("ConnectionError", reason -> new AtomicInteger()).incrementAndGet();
+                } else if (response.isAccepted()) {
+                    delivered.incrementAndGet();
+                } else {
+                    String reason = response.getRejectionReason().orElse("unknown");
+                    rejections.computeIfAbsent(reason, r -> new AtomicInteger()).incrementAndGet();
+                    if (TRANSIENT_REJECTIONS.contains(reason)) {
+                        retryable.add(token);
+                        return;
                     }
-                }
-
-                String payload = payloadBuilder.build();
-
-                SimpleApnsPushNotification pushNotification = new SimpleApnsPushNotification(
-                        sanitizedToken, topic, payload,
-                        Instant.now().plusSeconds(86400), // 24h expiry
-                        com.eatthepath.pushy.apns.DeliveryPriority.IMMEDIATE,
-                        com.eatthepath.pushy.apns.PushType.ALERT);
-
-                CompletableFuture<PushNotificationResponse<SimpleApnsPushNotification>> future =
-                        apnsClient.sendNotification(pushNotification);
-
-                future.whenComplete((response, throwable) -> {
-                    if (throwable != null) {
-                        log.error("Failed to send push notification to token {}: {}", maskedToken, throwable.getMessage());
-                    } else if (!response.isAccepted()) {
-                        log.warn("Push notification rejected for token {}: {} (reason: {})",
-                                maskedToken, response.getRejectionReason().orElse("unknown"),
-                                response.getTokenInvalidationTimestamp().orElse(null));
-
-                        // If token is invalid, it should be cleaned up
-                        response.getTokenInvalidationTimestamp().ifPresent(ts ->
-                                log.info("Token {} was invalidated at {}, should be removed", maskedToken, ts));
-                    } else {
-                        log.debug("Push notification accepted for token {}", maskedToken);
+                    failed.incrementAndGet();
+                    if (INVALID_TOKEN_REJECTIONS.contains(reason)
+                            || response.getTokenInvalidationTimestamp().isPresent()) {
+                        invalidTokenSink.report(token);
                     }
-                });
-            } catch (Exception e) {
-                log.error("Error sending push to token {}: {}", maskToken(token), e.getMessage(), e);
-            }
+                }
+            }));
         }
+
+        // Outcomes are tallied in whenComplete; a failed future is already counted as retryable
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(ex -> null).join();
+
+        PushDeliveryResult result = new PushDeliveryResult(delivered.get(), failed.get(), List.copyOf(retryable));
+        log.info("APNs push to {} tokens in {}ms: {} delivered, {} failed, {} retryable{}", tokens.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), result.delivered(), result.failed(),
+                result.retryableTokens().size(), rejections.isEmpty() ? "" : ", rejections " + rejections);
+        return result;
     }
 
-    private String maskToken(String token) {
-        if (token == null || token.isBlank()) {
-            return "unknown";
+    /** The payload is the same for every recipient, so it is serialized once per push. */
+    private static String buildPayload(String title, String body, Map<String, String> customData) {
+        SimpleApnsPayloadBuilder payloadBuilder = new SimpleApnsPayloadBuilder();
+        payloadBuilder.setAlertTitle(title);
+        payloadBuilder.setAlertBody(body);
+        payloadBuilder.setSound("default");
+        if (customData != null) {
+            for (Map.Entry<String, String> entry : customData.entrySet()) {
+                payloadBuilder.addCustomProperty(entry.getKey(), entry.getValue());
+            }
         }
+        return payloadBuilder.build();
+    }
 
-        int prefixLength = Math.min(8, token.length());
-        int suffixLength = token.length() > 12 ? 4 : 0;
-        if (suffixLength == 0) {
-            return token.substring(0, prefixLength) + "***";
+    private boolean acquirePermit() {
+        try {
+            inFlightPermits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
-
-        return token.substring(0, prefixLength) + "..." + token.substring(token.length() - suffixLength);
     }
 }
@@ -13,8 +13,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +28,7 @@ public class AssignmentService {
     private final ChallengeRepository challengeRepository;
     private final TeamRepository teamRepository;
     private final GameAccessService gameAccessService;
+    private final BulkPersister bulkPersister;
 
     @Transactional(readOnly = true)
     public List<AssignmentResponse> getAssignmentsByGame(UUID gameId) {
@@ -62,10 +65,24 @@ public class AssignmentService {
         Game game = resolveGame(gameId);
         validateBulkRequestConflicts(safeRequests);
 
+        // Load the game's bases, challenges and teams once instead of one lookup per request
+        Map<UUID, Base> bases = byId(baseRepository.findByGameId(gameId), Base::getId);
+        Map<UUID, Challenge> challenges = byId(challengeRepository.findByGameId(gameId), Challenge::getId);
+        Map<UUID, Team> teams = byId(teamRepository.findByGameId(gameId), Team::getId);
+
         List<Assignment> assignmentsToSave = safeRequests.stream().map(req -> {
-            Base base = resolveBaseForGame(gameId, req.getBaseId());
-            Challenge challenge = resolveChallengeForGame(gameId, req.getChallengeId());
-            Team team = resolveTeamForGame(gameId, req.getTeamId());
+            Base base = bases.get(req.getBaseId());
+            if (base == null) {
+                base = resolveBaseForGame(gameId, req.getBaseId());
+            }
+            Challenge challenge = challenges.get(req.getChallengeId());
+            if (challenge == null) {
+                challenge = resolveChallengeForGame(gameId, req.getChallengeId());
+            }
+            Team team = req.getTeamId() != null ? teams.get(req.getTeamId()) : null;
+            if (team == null) {
+                team = resolveTeamForGame(gameId, req.getTeamId());
+            }
 
             return Assignment.builder()
                     .game(game)
@@ -76,9 +93,9 @@ public class AssignmentService {
         }).collect(Collectors.toList());
 
         assignmentRepository.deleteByGameId(gameId);
+        bulkPersister.persistAll(assignmentsToSave);
 
         return assignmentsToSave.stream()
-                .map(assignmentRepository::save)
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
@@ -91,6 +108,10 @@ public class AssignmentService {
         assignmentRepository.delete(assignment);
     }
 
+    private static <T> Map<UUID, T> byId(List<T> entities, Function<T, UUID> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
     private Game resolveGame(UUID gameId) {
         return gameAccessService.getAccessibleGame(gameId);
     }
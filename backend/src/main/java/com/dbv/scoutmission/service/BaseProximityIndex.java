@@ -0,0 +1,227 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.ProximityProperties;
+import com.dbv.scoutmission.entity.Base;
+import com.dbv.scoutmission.entity.TeamLocation;
+import com.dbv.scoutmission.repository.BaseRepository;
+import com.dbv.scoutmission.repository.TeamLocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-game grid of base coordinates for proximity checks on location pings.
+ * <p>
+ * Each game's bases are bucketed into square cells of {@code app.proximity.radius-meters}, so a
+ * lookup within that radius only inspects the 3x3 cells around the fix. Grids are built lazily
+ * from the database and dropped after any transaction that edits the game's bases commits.
+ * <p>
+ * The index also keeps the latest fix this node received for each team, so an arrival can be
+ * detected without reading the previous location back. Fixes are dropped when the team is
+ * deleted or its game ends. Other nodes may have received newer fixes, so presence checks
+ * compare against the stored team location.
+ */
+@Component
+@RequiredArgsConstructor
+public class BaseProximityIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE_LAT = 111_320;
+
+    private final BaseRepository baseRepository;
+    private final TeamLocationRepository teamLocationRepository;
+    private final ProximityProperties properties;
+
+    private final ConcurrentMap<UUID, GameGrid> grids = new ConcurrentHashMap<>();
+    /** Bumped by every grid invalidation; a grid built across one is used once but not cached. */
+    private final AtomicLong gridInvalidations = new AtomicLong();
+    private final ConcurrentMap<UUID, TeamFix> teamFixes = new ConcurrentHashMap<>();
+
+    /**
+     * Bases within the configured radius of the given point, nearest first.
+     */
+    public List<NearbyBase> findNearby(UUID gameId, double lat, double lng) {
+        return grid(gameId).within(lat, lng, properties.getRadiusMeters());
+    }
+
+    public Optional<NearbyBase> findNearest(UUID gameId, double lat, double lng) {
+        List<NearbyBase> nearby = findNearby(gameId, lat, lng);
+        return nearby.isEmpty() ? Optional.empty() : Optional.of(nearby.get(0));
+    }
+
+    /**
+     * Stores the team's latest fix and returns the fix it replaced, if any.
+     */
+    public Optional<Fix> recordTeamFix(UUID gameId, UUID teamId, double lat, double lng, Instant recordedAt) {
+        TeamFix previous = teamFixes.put(teamId, new TeamFix(gameId, new Fix(lat, lng, recordedAt)));
+        return Optional.ofNullable(previous).map(TeamFix::fix);
+    }
+
+    /**
+     * Whether the team's latest fix is recent and within the configured radius of the base. The
+     * stored team location is used instead of this node's fix when it is newer, e.g. because the
+     * team's last pings went to another node, or after a restart.
+     */
+    public boolean isTeamAtBase(UUID gameId, UUID teamId, UUID baseId) {
+        TeamFix local = teamFixes.get(teamId);
+        Fix fix = local != null ? local.fix() : null;
+        TeamLocation location = teamLocationRepository.findById(teamId).orElse(null);
+        if (location != null && (fix == null || location.getUpdatedAt().isAfter(fix.recordedAt()))) {
+            fix = new Fix(location.getLat(), location.getLng(), location.getUpdatedAt());
+        }
+        if (fix == null || fix.recordedAt().isBefore(Instant.now().minus(properties.getMaxFixAge()))) {
+            return false;
+        }
+        return findNearby(gameId, fix.lat(), fix.lng()).stream()
+                .anyMatch(nearby -> nearby.baseId().equals(baseId));
+    }
+
+    /**
+     * Drops the game's grid once the current transaction commits, or immediately outside one.
+     */
+    public void invalidateAfterCommit(UUID gameId) {
+        afterCommit(() -> {
+            gridInvalidations.incrementAndGet();
+            grids.remove(gameId);
+        });
+    }
+
+    /**
+     * Drops the fixes of every team in the game once the current transaction commits, e.g. when
+     * the game ends or is deleted.
+     */
+    public void forgetGameFixesAfterCommit(UUID gameId) {
+        afterCommit(() -> teamFixes.values().removeIf(teamFix -> teamFix.gameId().equals(gameId)));
+    }
+
+    /**
+     * Drops the team's fix once the current transaction commits, e.g. when the team is deleted.
+     */
+    public void forgetTeamFixAfterCommit(UUID teamId) {
+        afterCommit(() -> teamFixes.remove(teamId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private GameGrid grid(UUID gameId) {
+        GameGrid grid = grids.get(gameId);
+        if (grid != null) {
+            return grid;
+        }
+        // Built outside the map's bin lock so the query does not block other games in the same
+        // bin. If an invalidation commits meanwhile, the grid may hold pre-commit bases: it still
+        // answers this call but is not cached.
+        long invalidations = gridInvalidations.get();
+        GameGrid built = GameGrid.build(baseRepository.findByGameId(gameId), properties.getRadiusMeters());
+        GameGrid cached = grids.compute(gameId, (id, existing) -> existing != null ? existing
+                : gridInvalidations.get() == invalidations ? built : null);
+        return cached != null ? cached : built;
+    }
+
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public record NearbyBase(UUID baseId, double distanceMeters) {
+    }
+
+    public record Fix(double lat, double lng, Instant recordedAt) {
+    }
+
+    private record TeamFix(UUID gameId, Fix fix) {
+    }
+
+    private record BasePoint(UUID baseId, double lat, double lng) {
+    }
+
+    private static final class GameGrid {
+        private final double cellLatDegrees;
+        private final double cellLngDegrees;
+        private final double cellMeters;
+        private final Map<Long, List<BasePoint>> cells;
+
+        private GameGrid(double cellLatDegrees, double cellLngDegrees, double cellMeters, Map<Long, List<BasePoint>> cells) {
+            this.cellLatDegrees = cellLatDegrees;
+            this.cellLngDegrees = cellLngDegrees;
+            this.cellMeters = cellMeters;
+            this.cells = cells;
+        }
+
+        static GameGrid build(List<Base> bases, double cellMeters) {
+            // Longitude cells are widened by the game's mean latitude so cells stay roughly square
+            double meanLat = bases.stream().mapToDouble(Base::getLat).average().orElse(0);
+            double cosLat = Math.max(0.01, Math.cos(Math.toRadians(meanLat)));
+            double cellLat = cellMeters / METERS_PER_DEGREE_LAT;
+            double cellLng = cellMeters / (METERS_PER_DEGREE_LAT * cosLat);
+
+            Map<Long, List<BasePoint>> cells = new HashMap<>();
+            for (Base base : bases) {
+                long key = key(cellIndex(base.getLat(), cellLat), cellIndex(base.getLng(), cellLng));
+                cells.computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(new BasePoint(base.getId(), base.getLat(), base.getLng()));
+            }
+            return new GameGrid(cellLat, cellLng, cellMeters, cells);
+        }
+
+        List<NearbyBase> within(double lat, double lng, double radiusMeters) {
+            int rings = (int) Math.ceil(radiusMeters / cellMeters);
+            int row = cellIndex(lat, cellLatDegrees);
+            int col = cellIndex(lng, cellLngDegrees);
+
+            List<NearbyBase> result = new ArrayList<>();
+            for (int dRow = -rings; dRow <= rings; dRow++) {
+                for (int dCol = -rings; dCol <= rings; dCol++) {
+                    List<BasePoint> points = cells.get(key(row + dRow, col + dCol));
+                    if (points == null) {
+                        continue;
+                    }
+                    for (BasePoint point : points) {
+                        double distance = distanceMeters(lat, lng, point.lat(), point.lng());
+                        if (distance <= radiusMeters) {
+                            result.add(new NearbyBase(point.baseId(), distance));
+                        }
+                    }
+                }
+            }
+            result.sort(Comparator.comparingDouble(NearbyBase::distanceMeters));
+            return result;
+        }
+
+        private static int cellIndex(double coordinate, double cellDegrees) {
+            return (int) Math.floor(coordinate / cellDegrees);
+        }
+
+        private static long key(int row, int col) {
+            return ((long) row << 32) | (col & 0xffffffffL);
+        }
+    }
+}
@@ -25,6 +25,7 @@ public class BaseService {
     private final BaseRepository baseRepository;
     private final ChallengeRepository challengeRepository;
     private final GameAccessService gameAccessService;
+    private final BaseProximityIndex proximityIndex;
 
     @Transactional(readOnly = true)
     public List<BaseResponse> getBasesByGame(UUID gameId) {
@@ -58,6 +59,7 @@ public class BaseService {
                 .build();
 
         base = baseRepository.save(base);
+        proximityIndex.invalidateAfterCommit(gameId);
         return toResponse(base);
     }
 
@@ -95,6 +97,7 @@ public class BaseService {
         }
 
         base = baseRepository.save(base);
+        proximityIndex.invalidateAfterCommit(gameId);
         return toResponse(base);
     }
 
@@ -116,6 +119,7 @@ public class BaseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Base", baseId));
         ensureBaseBelongsToGame(base, gameId);
         baseRepository.delete(base);
+        proximityIndex.invalidateAfterCommit(gameId);
     }
 
     private void ensureBaseBelongsToGame(Base base, UUID gameId) {
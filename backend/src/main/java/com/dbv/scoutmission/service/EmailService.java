@@ -7,17 +7,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+/**
+ * Invitation emails. They are queued in the transactional outbox with the invite and sent by the
+ * outbox relay, which retries when the mail server is unavailable.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class EmailService {
+public class EmailService implements OutboxHandler<EmailService.InviteEmail> {
+    static final String OUTBOX_TYPE = "email";
     private static final String BRAND_NAME = "PointFinder";
     private static final String PRIMARY_COLOR = "#16a34a";
 
     private final JavaMailSender mailSender;
+    private final OutboxService outboxService;
 
     @Value("${app.mail.from}")
     private String fromAddress;
@@ -28,8 +33,42 @@ public class EmailService {
     @Value("${app.frontend-url}")
     private String frontendUrl;
 
-    @Async
-    public void sendRegistrationInvite(String toEmail, String token, String inviterName) {
+    /** Queues the invite email in the current transaction. */
+    public void queueRegistrationInvite(String toEmail, String token, String inviterName) {
+        outboxService.enqueue(OUTBOX_TYPE, new InviteEmail(InviteEmail.REGISTRATION, toEmail, null, token, inviterName));
+    }
+
+    /** Queues the invite email in the current transaction. */
+    public void queueGameInvite(String toEmail, String gameName, String inviterName) {
+        outboxService.enqueue(OUTBOX_TYPE, new InviteEmail(InviteEmail.GAME, toEmail, gameName, null, inviterName));
+    }
+
+    @Override
+    public String type() {
+        return OUTBOX_TYPE;
+    }
+
+    @Override
+    public Class<InviteEmail> payloadType() {
+        return InviteEmail.class;
+    }
+
+    @Override
+    public InviteEmail handle(InviteEmail email, int attempt) throws MessagingException {
+        switch (email.kind()) {
+            case InviteEmail.REGISTRATION -> sendRegistrationInvite(email.to(), email.token(), email.inviterName());
+            case InviteEmail.GAME -> sendGameInvite(email.to(), email.gameName(), email.inviterName());
+            default -> log.warn("Dropping email of unknown kind {} to={}", email.kind(), email.to());
+        }
+        return null;
+    }
+
+    @Override
+    public void abandoned(InviteEmail email, int attempts) {
+        log.error("Giving up on {} invite email to={} after {} attempts", email.kind(), email.to(), attempts);
+    }
+
+    private void sendRegistrationInvite(String toEmail, String token, String inviterName) throws MessagingException {
         String subject = "You've been invited to " + BRAND_NAME;
         String registrationLink = frontendUrl + "/register/" + token;
         String safeInviterName = escapeHtml(inviterName);
@@ -51,8 +90,7 @@ public class EmailService {
         sendHtmlEmail(toEmail, subject, html);
     }
 
-    @Async
-    public void sendGameInvite(String toEmail, String gameName, String inviterName) {
+    private void sendGameInvite(String toEmail, String gameName, String inviterName) throws MessagingException {
         String subject = "You've been invited to operate a game on " + BRAND_NAME;
         String link = frontendUrl + "/games";
         String safeInviterName = escapeHtml(inviterName);
@@ -135,23 +173,26 @@ public class EmailService {
                 .replace("'", "&#39;");
     }
 
-    private void sendHtmlEmail(String to, String subject, String htmlBody) {
+    /** Throws when the mail server does not accept the message, so the outbox retries it. */
+    private void sendHtmlEmail(String to, String subject, String htmlBody) throws MessagingException {
         if (!mailEnabled) {
             log.info("Mail disabled. Would send to={}, subject={}", to, subject);
             return;
         }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromAddress);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true);
-            mailSender.send(message);
-            log.info("Email sent to={}, subject={}", to, subject);
-        } catch (MessagingException e) {
-            log.error("Failed to send email to={}, subject={}", to, subject, e);
-        }
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromAddress);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlBody, true);
+        mailSender.send(message);
+        log.info("Email sent to={}, subject={}", to, subject);
+    }
+
+    /** Outbox payload of an invite email; {@code gameName} or {@code token} is set depending on the kind. */
+    public record InviteEmail(String kind, String to, String gameName, String token, String inviterName) {
+        static final String REGISTRATION = "registration-invite";
+        static final String GAME = "game-invite";
     }
 }
@@ -1,12 +1,22 @@
 package com.dbv.scoutmission.service;
 
 import com.dbv.scoutmission.config.FcmConfig;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.ErrorCode;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
 import com.google.firebase.messaging.MulticastMessage;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -15,20 +25,31 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FcmPushService {
 
+    /** FCM rejects multicasts with more tokens than this. */
+    static final int MAX_MULTICAST_TOKENS = 500;
+    private static final String FCM_ENDPOINT = "https://fcm.googleapis.com";
+
     private final FcmConfig fcmConfig;
     private final ResourceLoader resourceLoader;
+    private final InvalidPushTokenSink invalidTokenSink;
 
     private FirebaseApp firebaseApp;
+    private Semaphore chunkPermits;
 
     @PostConstruct
     public void init() {
@@ -40,13 +61,7 @@ public class FcmPushService {
         try {
             Resource resource = resourceLoader.getResource(fcmConfig.getCredentialsPath());
             try (InputStream stream = resource.getInputStream()) {
-                FirebaseOptions.Builder optionsBuilder = FirebaseOptions.builder()
-                        .setCredentials(GoogleCredentials.fromStream(stream));
-                if (fcmConfig.getProjectId() != null && !fcmConfig.getProjectId().isBlank()) {
-                    optionsBuilder.setProjectId(fcmConfig.getProjectId());
-                }
-                FirebaseOptions options = optionsBuilder.build();
-                firebaseApp = FirebaseApp.initializeApp(options, "dbv-fcm");
+                initialize(GoogleCredentials.fromStream(stream));
                 log.info("FCM client initialized successfully");
             }
         } catch (Exception e) {
@@ -54,6 +69,20 @@ public class FcmPushService {
         }
     }
 
+    void initialize(GoogleCredentials credentials) {
+        FirebaseOptions.Builder optionsBuilder = FirebaseOptions.builder()
+                .setCredentials(credentials);
+        if (fcmConfig.getProjectId() != null && !fcmConfig.getProjectId().isBlank()) {
+            optionsBuilder.setProjectId(fcmConfig.getProjectId());
+        }
+        if (fcmConfig.getEndpoint() != null && !fcmConfig.getEndpoint().isBlank()) {
+            optionsBuilder.setHttpTransport(endpointOverride(fcmConfig.getEndpoint()));
+            log.warn("FCM requests are sent to {} instead of {}", fcmConfig.getEndpoint(), FCM_ENDPOINT);
+        }
+        chunkPermits = new Semaphore(Math.max(1, fcmConfig.getMaxConcurrentChunks()));
+        firebaseApp = FirebaseApp.initializeApp(optionsBuilder.build(), "dbv-fcm");
+    }
+
     @PreDestroy
     public void shutdown() {
         if (firebaseApp != null) {
@@ -61,43 +90,149 @@ public class FcmPushService {
         }
     }
 
-    public void sendPush(List<String> tokens, String title, String body, Map<String, String> customData) {
+    /**
+     * Sends the notification to the tokens in multicasts of at most 500 tokens (the FCM limit),
+     * with up to {@code app.fcm.max-concurrent-chunks} multicasts in flight across all callers,
+     * and waits for every chunk. Tokens that failed with UNAVAILABLE, INTERNAL, QUOTA_EXCEEDED,
+     * UNKNOWN or a network error, or all tokens of a chunk whose request failed, are returned as
+     * retryable.
+     */
+    public PushDeliveryResult sendPush(List<String> tokens, String title, String body, Map<String, String> customData) {
         if (!fcmConfig.isEnabled() || firebaseApp == null) {
             log.debug("FCM disabled or not initialized, skipping push to {} tokens", tokens.size());
-            return;
+            return PushDeliveryResult.NOT_SENT;
         }
 
         if (tokens.isEmpty()) {
             log.debug("No FCM tokens to send to");
-            return;
+            return PushDeliveryResult.NOT_SENT;
         }
 
-        try {
+        Notification notification = Notification.builder().setTitle(title).setBody(body).build();
+        FirebaseMessaging messaging = FirebaseMessaging.getInstance(firebaseApp);
+        List<List<String>> chunks = chunks(tokens, Math.min(MAX_MULTICAST_TOKENS, fcmConfig.getChunkSize()));
+        List<CompletableFuture<PushDeliveryResult>> pending = new ArrayList<>(chunks.size());
+
+        for (List<String> chunk : chunks) {
             MulticastMessage.Builder builder = MulticastMessage.builder()
-                    .addAllTokens(tokens)
-                    .setNotification(Notification.builder().setTitle(title).setBody(body).build());
+                    .addAllTokens(chunk)
+                    .setNotification(notification);
             if (customData != null && !customData.isEmpty()) {
                 builder.putAllData(customData);
             }
-            var response = FirebaseMessaging.getInstance(firebaseApp).sendEachForMulticastAsync(builder.build()).get();
-            if (response.getFailureCount() > 0) {
-                for (int i = 0; i < response.getResponses().size(); i++) {
-                    var sendResponse = response.getResponses().get(i);
-                    if (!sendResponse.isSuccessful()) {
-                        log.warn("FCM push failed for token {}: {}",
-                                maskToken(tokens.get(i)),
-                                sendResponse.getException() != null ? sendResponse.getException().getMessage() : "unknown");
-                    }
-                }
+            try {
+                chunkPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("FCM send interrupted: {}", e.getMessage(), e);
+                pending.add(CompletableFuture.completedFuture(PushDeliveryResult.retryAll(chunk)));
+                continue;
+            }
+
+            CompletableFuture<PushDeliveryResult> result = new CompletableFuture<>();
+            ApiFutures.addCallback(messaging.sendEachForMulticastAsync(builder.build()),
+                    new ApiFutureCallback<BatchResponse>() {
+                        @Override
+                        public void onSuccess(BatchResponse response) {
+                            chunkPermits.release();
+                            result.complete(toResult(chunk, response));
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            chunkPermits.release();
+                            log.error("FCM send of {} tokens failed: {}", chunk.size(), t.getMessage(), t);
+                            result.complete(PushDeliveryResult.retryAll(chunk));
+                        }
+                    }, Runnable::run);
+            pending.add(result);
+        }
+
+        int delivered = 0;
+        int failed = 0;
+        List<String> retryable = new ArrayList<>();
+        for (CompletableFuture<PushDeliveryResult> future : pending) {
+            PushDeliveryResult chunkResult = future.join();
+            delivered += chunkResult.delivered();
+            failed += chunkResult.failed();
+            retryable.addAll(chunkResult.retryableTokens());
+        }
+        log.debug("FCM push to {} tokens in {} chunks: {} delivered, {} failed, {} retryable",
+                tokens.size(), chunks.size(), delivered, failed, retryable.size());
+        return new PushDeliveryResult(delivered, failed, retryable);
+    }
+
+    private PushDeliveryResult toResult(List<String> chunk, BatchResponse response) {
+        if (response.getFailureCount() == 0) {
+            return new PushDeliveryResult(chunk.size(), 0, List.of());
+        }
+
+        int failed = 0;
+        List<String> retryable = new ArrayList<>();
+        for (int i = 0; i < response.getResponses().size(); i++) {
+            SendResponse sendResponse = response.getResponses().get(i);
+            if (sendResponse.isSuccessful()) {
+                continue;
+            }
+            FirebaseMessagingException exception = sendResponse.getException();
+            if (exception == null || isTransient(exception)) {
+                retryable.add(chunk.get(i));
+            } else if (exception.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED) {
+                failed++;
+                invalidTokenSink.report(chunk.get(i));
             } else {
-                log.debug("FCM push notifications sent successfully to {} devices", tokens.size());
+                failed++;
+                log.warn("FCM push failed for token {}: {}", maskToken(chunk.get(i)), exception.getMessage());
+            }
+        }
+        return new PushDeliveryResult(response.getSuccessCount(), failed, retryable);
+    }
+
+    static List<List<String>> chunks(List<String> tokens, int size) {
+        List<List<String>> chunks = new ArrayList<>((tokens.size() + size - 1) / size);
+        for (int from = 0; from < tokens.size(); from += size) {
+            chunks.add(tokens.subList(from, Math.min(from + size, tokens.size())));
+        }
+        return chunks;
+    }
+
+    /** Routes FCM API calls to another base URL, e.g. a local fake FCM server for tests. */
+    private static HttpTransport endpointOverride(String endpoint) {
+        String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        return new NetHttpTransport.Builder()
+                .setConnectionFactory(url -> {
+                    String target = url.toString();
+                    if (target.startsWith(FCM_ENDPOINT)) {
+                        target = base + target.substring(FCM_ENDPOINT.length());
+                    }
+                    return (HttpURLConnection) URI.create(target).toURL().openConnection();
+                })
+                .build();
+    }
+
+    /**
+     * A missing messaging error code means FCM never answered for the token (connection reset,
+     * timeout), and UNKNOWN is what the SDK reports for unparseable responses; neither says
+     * anything about the token itself.
+     */
+    static boolean isTransient(FirebaseMessagingException exception) {
+        MessagingErrorCode errorCode = exception.getMessagingErrorCode();
+        return errorCode == null
+                || errorCode == MessagingErrorCode.UNAVAILABLE
+                || errorCode == MessagingErrorCode.INTERNAL
+                || errorCode == MessagingErrorCode.QUOTA_EXCEEDED
+                || exception.getErrorCode() == ErrorCode.UNKNOWN
+                || hasNetworkCause(exception);
+    }
+
+    /** An IOException cause other than the HttpResponseException the client wraps error responses in. */
+    private static boolean hasNetworkCause(Throwable exception) {
+        for (Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException && !(cause instanceof HttpResponseException)) {
+                return true;
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("FCM send interrupted: {}", e.getMessage(), e);
-        } catch (ExecutionException e) {
-            log.error("FCM send execution failed: {}", e.getMessage(), e);
         }
+        return false;
     }
 
     private String maskToken(String token) {
@@ -0,0 +1,241 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.dto.export.AssignmentExportDto;
+import com.dbv.scoutmission.dto.export.BaseExportDto;
+import com.dbv.scoutmission.dto.export.ChallengeExportDto;
+import com.dbv.scoutmission.dto.export.GameMetadataDto;
+import com.dbv.scoutmission.dto.export.TeamExportDto;
+import com.dbv.scoutmission.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A game import body ({@code {"gameData": {...}, "startDate": ..., "endDate": ...}}) spooled to a
+ * temporary file, so its sections can be streamed one item at a time and in any order. Exports
+ * list bases before challenges and assignments before teams, which is the reverse of the order
+ * the rows have to be inserted in.
+ */
+class GameImportDocument implements AutoCloseable {
+
+    record Section<T>(String name, Class<T> type) {
+        static final Section<ChallengeExportDto> CHALLENGES = new Section<>("challenges", ChallengeExportDto.class);
+        static final Section<BaseExportDto> BASES = new Section<>("bases", BaseExportDto.class);
+        static final Section<TeamExportDto> TEAMS = new Section<>("teams", TeamExportDto.class);
+        static final Section<AssignmentExportDto> ASSIGNMENTS = new Section<>("assignments", AssignmentExportDto.class);
+        static final List<Section<?>> ALL = List.of(CHALLENGES, BASES, TEAMS, ASSIGNMENTS);
+    }
+
+    /** Top-level fields; {@code sections} names the sections present as arrays. */
+    record Header(boolean hasGameData, String exportVersion, GameMetadataDto game,
+                  Instant startDate, Instant endDate, Set<String> sections) {
+    }
+
+    @FunctionalInterface
+    interface ItemHandler<T> {
+        /** @param path JSON path of the item, e.g. {@code gameData.bases[3]} */
+        void accept(String path, T item);
+    }
+
+    /** The only format version exports are written in and imports accept. */
+    static final String EXPORT_VERSION = "1.0";
+
+    private static final String GAME_DATA = "gameData";
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    private GameImportDocument(ObjectMapper objectMapper, Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    /**
+     * Copies the body to a temporary file, failing with a {@link BadRequestException} as soon as it
+     * grows past {@code maxBytes}, so one request cannot fill the temp directory.
+     */
+    static GameImportDocument spool(InputStream body, ObjectMapper objectMapper, long maxBytes) throws IOException {
+        Path file = Files.createTempFile("game-import-", ".json");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[SPOOL_BUFFER_SIZE];
+            long written = 0;
+            for (int read; (read = body.read(buffer)) != -1; ) {
+                written += read;
+                if (written > maxBytes) {
+                    throw new BadRequestException("Import body exceeds the limit of " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        return new GameImportDocument(objectMapper, file);
+    }
+
+    /** Reads the whole document once, handing over the items of every section in document order. */
+    Header scan(ItemHandler<Object> handler) {
+        return read(section -> true, handler);
+    }
+
+    /** Reads the document once, handing over only the items of {@code section}. */
+    @SuppressWarnings("unchecked")
+    <T> void forEach(Section<T> section, ItemHandler<T> handler) {
+        read(section::equals, (path, item) -> handler.accept(path, (T) item));
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private Header read(Predicate<Section<?>> wanted, ItemHandler<Object> handler) {
+        try (JsonParser parser = objectMapper.createParser(file.toFile())) {
+            try {
+                return readDocument(parser, wanted, handler);
+            } catch (JsonParseException ex) {
+                throw new BadRequestException("Malformed JSON at " + path(parser.getParsingContext())
+                        + ": " + ex.getOriginalMessage());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Header readDocument(JsonParser parser, Predicate<Section<?>> wanted, ItemHandler<Object> handler)
+            throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new BadRequestException("Import body must be a JSON object");
+        }
+        GameData gameData = null;
+        Instant startDate = null;
+        Instant endDate = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case GAME_DATA -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        gameData = readGameData(parser, wanted, handler);
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        throw new BadRequestException(GAME_DATA + " must be an object");
+                    }
+                }
+                case "startDate" -> startDate = readValue(parser, Instant.class, field);
+                case "endDate" -> endDate = readValue(parser, Instant.class, field);
+                default -> parser.skipChildren();
+            }
+        }
+        return gameData == null
+                ? new Header(false, null, null, startDate, endDate, Set.of())
+                : new Header(true, gameData.exportVersion, gameData.game, startDate, endDate, gameData.sections);
+    }
+
+    private GameData readGameData(JsonParser parser, Predicate<Section<?>> wanted, ItemHandler<Object> handler)
+            throws IOException {
+        GameData gameData = new GameData();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            String path = GAME_DATA + "." + field;
+            JsonToken value = parser.nextToken();
+            Section<?> section = section(field);
+            if (section != null) {
+                if (value == JsonToken.START_ARRAY) {
+                    gameData.sections.add(field);
+                    if (wanted.test(section)) {
+                        readItems(parser, section, path, handler);
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else if (value != JsonToken.VALUE_NULL) {
+                    throw new BadRequestException(path + " must be an array");
+                }
+                continue;
+            }
+            switch (field) {
+                case "exportVersion" -> gameData.exportVersion = readValue(parser, String.class, path);
+                case "game" -> gameData.game = readValue(parser, GameMetadataDto.class, path);
+                default -> parser.skipChildren();
+            }
+        }
+        return gameData;
+    }
+
+    private void readItems(JsonParser parser, Section<?> section, String path, ItemHandler<Object> handler)
+            throws IOException {
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String itemPath = path + "[" + index++ + "]";
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new BadRequestException(itemPath + " must be an object");
+            }
+            handler.accept(itemPath, readValue(parser, section.type(), itemPath));
+        }
+    }
+
+    private <T> T readValue(JsonParser parser, Class<T> type, String path) throws IOException {
+        try {
+            return objectMapper.readValue(parser, type);
+        } catch (JsonMappingException ex) {
+            throw new BadRequestException(path + path(ex.getPath()) + " is invalid: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static Section<?> section(String name) {
+        for (Section<?> section : Section.ALL) {
+            if (section.name().equals(name)) {
+                return section;
+            }
+        }
+        return null;
+    }
+
+    private static String path(List<JsonMappingException.Reference> references) {
+        StringBuilder path = new StringBuilder();
+        for (JsonMappingException.Reference reference : references) {
+            if (reference.getFieldName() != null) {
+                path.append('.').append(reference.getFieldName());
+            } else if (reference.getIndex() >= 0) {
+                path.append('[').append(reference.getIndex()).append(']');
+            }
+        }
+        return path.toString();
+    }
+
+    private static String path(JsonStreamContext context) {
+        Deque<String> parts = new ArrayDeque<>();
+        for (JsonStreamContext current = context; current != null && !current.inRoot(); current = current.getParent()) {
+            if (current.inArray()) {
+                parts.push("[" + current.getCurrentIndex() + "]");
+            } else if (current.getCurrentName() != null) {
+                parts.push((current.getParent() != null && current.getParent().inRoot() ? "" : ".")
+                        + current.getCurrentName());
+            }
+        }
+        return parts.isEmpty() ? "$" : String.join("", parts);
+    }
+
+    private static final class GameData {
+        private String exportVersion;
+        private GameMetadataDto game;
+        private final Set<String> sections = new HashSet<>();
+    }
+}
@@ -0,0 +1,187 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.dto.export.AssignmentExportDto;
+import com.dbv.scoutmission.dto.export.BaseExportDto;
+import com.dbv.scoutmission.dto.export.ChallengeExportDto;
+import com.dbv.scoutmission.dto.export.TeamExportDto;
+import com.dbv.scoutmission.exception.BadRequestException;
+import com.dbv.scoutmission.exception.ConflictException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validates a game import one item at a time while it streams past. Only temp ids are kept;
+ * references to items that appear later in the document are held back and checked by
+ * {@link #validateReferences()} once the whole document has been seen.
+ */
+class GameImportValidator {
+
+    private final Set<String> baseTempIds = new HashSet<>();
+    private final Set<String> challengeTempIds = new HashSet<>();
+    private final Set<String> teamTempIds = new HashSet<>();
+    private final List<TempIdReference> forwardReferences = new ArrayList<>();
+
+    private final Set<String> seenTeamSpecific = new HashSet<>();
+    private final Set<String> basesWithAllTeams = new HashSet<>();
+    private final Set<String> basesWithTeamSpecific = new HashSet<>();
+
+    void validate(String path, Object item) {
+        switch (item) {
+            case BaseExportDto base -> validateBase(path, base);
+            case ChallengeExportDto challenge -> validateChallenge(path, challenge);
+            case TeamExportDto team -> validateTeam(path, team);
+            case AssignmentExportDto assignment -> validateAssignment(path, assignment);
+            default -> throw new IllegalArgumentException("Unexpected import item at " + path);
+        }
+    }
+
+    void validateHeader(GameImportDocument.Header header) {
+        if (!header.hasGameData()) {
+            throw new BadRequestException("gameData is required");
+        }
+        if (!GameImportDocument.EXPORT_VERSION.equals(header.exportVersion())) {
+            throw new BadRequestException("Unsupported export version: " + header.exportVersion());
+        }
+        if (header.game() == null) {
+            throw new BadRequestException("gameData.game is required");
+        }
+        for (GameImportDocument.Section<?> section : List.of(GameImportDocument.Section.BASES,
+                GameImportDocument.Section.CHALLENGES, GameImportDocument.Section.ASSIGNMENTS)) {
+            if (!header.sections().contains(section.name())) {
+                throw new BadRequestException("gameData." + section.name() + " is required");
+            }
+        }
+        if (header.startDate() != null && header.endDate() != null
+                && header.endDate().isBefore(header.startDate())) {
+            throw new BadRequestException("End date must be after start date");
+        }
+        requireNotBlank(header.game().getName(), "gameData.game.name");
+    }
+
+    /** Checks the references that pointed forward when their item was validated. */
+    void validateReferences() {
+        for (TempIdReference reference : forwardReferences) {
+            if (!tempIds(reference.kind()).contains(reference.tempId())) {
+                throw new BadRequestException(reference.path() + " references non-existent "
+                        + reference.kind() + ": " + reference.tempId());
+            }
+        }
+    }
+
+    int teamCount() {
+        return teamTempIds.size();
+    }
+
+    private void validateBase(String path, BaseExportDto base) {
+        requireNotBlank(base.getTempId(), path + ".tempId");
+        requireNotBlank(base.getName(), path + ".name");
+        requireNotNull(base.getLat(), path + ".lat");
+        requireNotNull(base.getLng(), path + ".lng");
+        if (base.getFixedChallengeTempId() != null) {
+            if (base.getFixedChallengeTempId().isBlank()) {
+                throw new BadRequestException(path + ".fixedChallengeTempId cannot be blank");
+            }
+            reference(path + ".fixedChallengeTempId", "challenge", base.getFixedChallengeTempId());
+        }
+        if (!baseTempIds.add(base.getTempId())) {
+            throw new BadRequestException("Duplicate base tempId at " + path + ": " + base.getTempId());
+        }
+    }
+
+    private void validateChallenge(String path, ChallengeExportDto challenge) {
+        requireNotBlank(challenge.getTempId(), path + ".tempId");
+        requireNotBlank(challenge.getTitle(), path + ".title");
+        requireNotNull(challenge.getAnswerType(), path + ".answerType");
+        requireNotNull(challenge.getPoints(), path + ".points");
+        if (challenge.getPoints() < 0) {
+            throw new BadRequestException(path + ".points must be greater than or equal to 0");
+        }
+        if (!challengeTempIds.add(challenge.getTempId())) {
+            throw new BadRequestException("Duplicate challenge tempId at " + path + ": " + challenge.getTempId());
+        }
+    }
+
+    private void validateTeam(String path, TeamExportDto team) {
+        requireNotBlank(team.getTempId(), path + ".tempId");
+        requireNotBlank(team.getName(), path + ".name");
+        requireNotBlank(team.getColor(), path + ".color");
+        if (team.getColor().length() > 7) {
+            throw new BadRequestException(path + ".color must be at most 7 characters");
+        }
+        if (!teamTempIds.add(team.getTempId())) {
+            throw new BadRequestException("Duplicate team tempId at " + path + ": " + team.getTempId());
+        }
+    }
+
+    private void validateAssignment(String path, AssignmentExportDto assignment) {
+        requireNotBlank(assignment.getBaseTempId(), path + ".baseTempId");
+        requireNotBlank(assignment.getChallengeTempId(), path + ".challengeTempId");
+        if (assignment.getTeamTempId() != null && assignment.getTeamTempId().isBlank()) {
+            throw new BadRequestException(path + ".teamTempId cannot be blank");
+        }
+
+        reference(path + ".baseTempId", "base", assignment.getBaseTempId());
+        reference(path + ".challengeTempId", "challenge", assignment.getChallengeTempId());
+        if (assignment.getTeamTempId() != null) {
+            reference(path + ".teamTempId", "team", assignment.getTeamTempId());
+        }
+        validateAssignmentConflicts(path, assignment.getBaseTempId(), assignment.getTeamTempId());
+    }
+
+    private void validateAssignmentConflicts(String path, String baseTempId, String teamTempId) {
+        if (teamTempId == null) {
+            if (basesWithTeamSpecific.contains(baseTempId)) {
+                throw new ConflictException("Cannot mix 'All Teams' and team-specific assignments for base: "
+                        + baseTempId + " at " + path);
+            }
+            if (!basesWithAllTeams.add(baseTempId)) {
+                throw new ConflictException("Duplicate 'All Teams' assignment for base: " + baseTempId + " at " + path);
+            }
+            return;
+        }
+
+        if (basesWithAllTeams.contains(baseTempId)) {
+            throw new ConflictException("Cannot mix team-specific and 'All Teams' assignments for base: "
+                    + baseTempId + " at " + path);
+        }
+
+        String key = baseTempId + ":" + teamTempId;
+        if (!seenTeamSpecific.add(key)) {
+            throw new ConflictException("Duplicate assignment for base/team: " + key + " at " + path);
+        }
+        basesWithTeamSpecific.add(baseTempId);
+    }
+
+    private void reference(String path, String kind, String tempId) {
+        if (!tempIds(kind).contains(tempId)) {
+            forwardReferences.add(new TempIdReference(path, kind, tempId));
+        }
+    }
+
+    private Set<String> tempIds(String kind) {
+        return switch (kind) {
+            case "base" -> baseTempIds;
+            case "challenge" -> challengeTempIds;
+            case "team" -> teamTempIds;
+            default -> throw new IllegalArgumentException(kind);
+        };
+    }
+
+    private static void requireNotBlank(String value, String fieldName) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException(fieldName + " is required");
+        }
+    }
+
+    private static void requireNotNull(Object value, String fieldName) {
+        if (value == null) {
+            throw new BadRequestException(fieldName + " is required");
+        }
+    }
+
+    private record TempIdReference(String path, String kind, String tempId) {
+    }
+}
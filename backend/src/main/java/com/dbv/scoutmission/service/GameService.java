@@ -2,23 +2,38 @@ package com.dbv.scoutmission.service;
 
 import com.dbv.scoutmission.dto.export.*;
 import com.dbv.scoutmission.dto.request.CreateGameRequest;
-import com.dbv.scoutmission.dto.request.GameImportRequest;
 import com.dbv.scoutmission.dto.request.UpdateGameRequest;
 import com.dbv.scoutmission.dto.response.GameResponse;
 import com.dbv.scoutmission.dto.response.UserResponse;
 import com.dbv.scoutmission.entity.*;
 import com.dbv.scoutmission.exception.BadRequestException;
-import com.dbv.scoutmission.exception.ConflictException;
 import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.*;
 import com.dbv.scoutmission.security.SecurityUtils;
+import com.dbv.scoutmission.websocket.GameEventBroadcaster;
+import com.dbv.scoutmission.websocket.WebSocketAuthCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,18 +41,35 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class GameService {
 
+    private static final int EXPORT_GZIP_BUFFER_SIZE = 8192;
+    private static final int IMPORT_BATCH_SIZE = 100;
+
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final BaseRepository baseRepository;
     private final ChallengeRepository challengeRepository;
     private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
     private final AssignmentRepository assignmentRepository;
     private final CheckInRepository checkInRepository;
     private final SubmissionRepository submissionRepository;
     private final TeamLocationRepository teamLocationRepository;
+    private final LocationHistoryService locationHistoryService;
+    private final BaseProximityIndex proximityIndex;
+    private final WebSocketAuthCache webSocketAuthCache;
+    private final GameEventBroadcaster eventBroadcaster;
     private final ActivityEventRepository activityEventRepository;
     private final GameAccessService gameAccessService;
     private final FileStorageService fileStorageService;
+    private final BulkPersister bulkPersister;
+    private final GameExportRepository gameExportRepository;
+    private final JoinCodeGenerator joinCodeGenerator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Largest import body spooled to disk; a bigger one is rejected before anything is parsed. */
+    @Value("${app.import.max-size:50MB}")
+    private DataSize importMaxSize = DataSize.ofMegabytes(50);
 
     @Transactional(readOnly = true)
     public List<GameResponse> getAllGames() {
@@ -104,7 +136,12 @@ public class GameService {
     @Transactional
     public void deleteGame(UUID id) {
         gameAccessService.ensureCurrentUserCanAccessGame(id);
+        webSocketAuthCache.invalidatePlayersAfterCommit(playerRepository.findIdsByGameId(id));
         gameRepository.deleteById(id);
+        proximityIndex.invalidateAfterCommit(id);
+        proximityIndex.forgetGameFixesAfterCommit(id);
+        webSocketAuthCache.invalidateGameAfterCommit(id);
+        eventBroadcaster.forgetGameAfterCommit(id);
         // Clean up uploaded files after DB deletion (non-fatal if it fails)
         try {
             fileStorageService.deleteGameFiles(id);
@@ -133,6 +170,8 @@ public class GameService {
                 submissionRepository.deleteByGameId(id);
                 checkInRepository.deleteByGameId(id);
                 teamLocationRepository.deleteByGameId(id);
+                proximityIndex.forgetGameFixesAfterCommit(id);
+                locationHistoryService.deleteByGameId(id);
                 activityEventRepository.deleteByGameId(id);
             }
             // Always clear auto-assigned challenge assignments when going back to setup
@@ -182,6 +221,11 @@ public class GameService {
             autoAssignChallenges(game);
         }
 
+        // Fixes are only needed while the game is live
+        if (target == GameStatus.ended) {
+            proximityIndex.forgetGameFixesAfterCommit(id);
+        }
+
         game.setStatus(target);
         game = gameRepository.save(game);
         return toResponse(game);
@@ -194,6 +238,7 @@ public class GameService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
         game.getOperators().add(user);
         gameRepository.save(game);
+        webSocketAuthCache.invalidateUserAccessAfterCommit(userId, gameId);
     }
 
     @Transactional
@@ -204,6 +249,7 @@ public class GameService {
         }
         game.getOperators().removeIf(u -> u.getId().equals(userId));
         gameRepository.save(game);
+        webSocketAuthCache.invalidateUserAccessAfterCommit(userId, gameId);
     }
 
     private void autoAssignChallenges(Game game) {
@@ -231,100 +277,100 @@ public class GameService {
 
         Random random = new Random();
 
-        // Track globally used challenges (for uniform assignment mode)
+        // One pass over existing assignments: bases already covered, challenges used anywhere,
+        // challenges used by all teams (global rows) and by each team
+        Set<UUID> basesWithAssignments = new HashSet<>();
         Set<UUID> usedGlobally = new HashSet<>(fixedChallengeIds);
+        Set<UUID> usedByAllTeams = new HashSet<>();
+        Map<UUID, Set<UUID>> usedByTeamId = new HashMap<>();
         for (Assignment a : existingAssignments) {
-            usedGlobally.add(a.getChallenge().getId());
+            UUID challengeId = a.getChallenge().getId();
+            basesWithAssignments.add(a.getBase().getId());
+            usedGlobally.add(challengeId);
+            if (a.getTeam() == null) {
+                usedByAllTeams.add(challengeId);
+            } else {
+                usedByTeamId.computeIfAbsent(a.getTeam().getId(), id -> new HashSet<>()).add(challengeId);
+            }
         }
 
         // Initialize per-team tracking of assigned challenge IDs
         Map<UUID, Set<UUID>> teamAssignedChallenges = new HashMap<>();
         for (Team team : teams) {
-            Set<UUID> usedChallenges = new HashSet<>();
-
-            // Track challenges from existing manual assignments for this team
-            for (Assignment a : existingAssignments) {
-                if (a.getTeam() != null && a.getTeam().getId().equals(team.getId())) {
-                    usedChallenges.add(a.getChallenge().getId());
-                } else if (a.getTeam() == null) {
-                    // Global assignment applies to all teams
-                    usedChallenges.add(a.getChallenge().getId());
-                }
-            }
-
+            Set<UUID> usedChallenges = new HashSet<>(usedByAllTeams);
+            usedChallenges.addAll(usedByTeamId.getOrDefault(team.getId(), Set.of()));
             teamAssignedChallenges.put(team.getId(), usedChallenges);
         }
 
+        // Collected and inserted in JDBC batches at the end instead of one save per row
+        List<Assignment> newAssignments = new ArrayList<>();
         for (Base base : bases) {
-            // Check if this base already has assignments
-            boolean hasAssignments = existingAssignments.stream()
-                    .anyMatch(a -> a.getBase().getId().equals(base.getId()));
+            if (basesWithAssignments.contains(base.getId())) {
+                continue;
+            }
 
             if (base.getFixedChallenge() != null) {
-                // Base has a fixed challenge - create per-team assignments if none exist
-                if (!hasAssignments) {
+                // Base has a fixed challenge - create per-team assignments
+                for (Team team : teams) {
+                    newAssignments.add(Assignment.builder()
+                            .game(game)
+                            .base(base)
+                            .challenge(base.getFixedChallenge())
+                            .team(team)
+                            .build());
+                    teamAssignedChallenges.get(team.getId()).add(base.getFixedChallenge().getId());
+                }
+            } else if (Boolean.TRUE.equals(game.getUniformAssignment())) {
+                // Uniform mode: pick one challenge for this base, assign to all teams
+                // Use a shared pool that excludes already-used challenges across all teams
+                List<Challenge> sharedPool = randomPool.stream()
+                        .filter(c -> !usedGlobally.contains(c.getId()))
+                        .collect(Collectors.toList());
+
+                if (!sharedPool.isEmpty()) {
+                    int idx = random.nextInt(sharedPool.size());
+                    Challenge selected = sharedPool.get(idx);
+                    usedGlobally.add(selected.getId());
+
                     for (Team team : teams) {
-                        Assignment assignment = Assignment.builder()
+                        newAssignments.add(Assignment.builder()
                                 .game(game)
                                 .base(base)
-                                .challenge(base.getFixedChallenge())
+                                .challenge(selected)
                                 .team(team)
-                                .build();
-                        assignmentRepository.save(assignment);
-                        teamAssignedChallenges.get(team.getId()).add(base.getFixedChallenge().getId());
+                                .build());
+                        teamAssignedChallenges.get(team.getId()).add(selected.getId());
                     }
                 }
-            } else if (!hasAssignments) {
-                if (Boolean.TRUE.equals(game.getUniformAssignment())) {
-                    // Uniform mode: pick one challenge for this base, assign to all teams
-                    // Use a shared pool that excludes already-used challenges across all teams
-                    List<Challenge> sharedPool = randomPool.stream()
-                            .filter(c -> !usedGlobally.contains(c.getId()))
+            } else {
+                // Per-team mode: each team gets a different random challenge
+                for (Team team : teams) {
+                    Set<UUID> usedByTeam = teamAssignedChallenges.get(team.getId());
+
+                    // Filter pool: exclude challenges already assigned to this team
+                    List<Challenge> teamPool = randomPool.stream()
+                            .filter(c -> !usedByTeam.contains(c.getId()))
                             .collect(Collectors.toList());
 
-                    if (!sharedPool.isEmpty()) {
-                        int idx = random.nextInt(sharedPool.size());
-                        Challenge selected = sharedPool.get(idx);
-                        usedGlobally.add(selected.getId());
-
-                        for (Team team : teams) {
-                            Assignment assignment = Assignment.builder()
-                                    .game(game)
-                                    .base(base)
-                                    .challenge(selected)
-                                    .team(team)
-                                    .build();
-                            assignmentRepository.save(assignment);
-                            teamAssignedChallenges.get(team.getId()).add(selected.getId());
-                        }
-                    }
-                } else {
-                    // Per-team mode: each team gets a different random challenge
-                    for (Team team : teams) {
-                        Set<UUID> usedByTeam = teamAssignedChallenges.get(team.getId());
-
-                        // Filter pool: exclude challenges already assigned to this team
-                        List<Challenge> teamPool = randomPool.stream()
-                                .filter(c -> !usedByTeam.contains(c.getId()))
-                                .collect(Collectors.toList());
-
-                        if (!teamPool.isEmpty()) {
-                            int idx = random.nextInt(teamPool.size());
-                            Challenge selected = teamPool.get(idx);
-
-                            Assignment assignment = Assignment.builder()
-                                    .game(game)
-                                    .base(base)
-                                    .challenge(selected)
-                                    .team(team)
-                                    .build();
-                            assignmentRepository.save(assignment);
-                            usedByTeam.add(selected.getId());
-                        }
+                    if (!teamPool.isEmpty()) {
+                        int idx = random.nextInt(teamPool.size());
+                        Challenge selected = teamPool.get(idx);
+
+                        newAssignments.add(Assignment.builder()
+                                .game(game)
+                                .base(base)
+                                .challenge(selected)
+                                .team(team)
+                                .build());
+                        usedByTeam.add(selected.getId());
                     }
                 }
             }
         }
+
+        if (!newAssignments.isEmpty()) {
+            assignmentRepository.saveAll(newAssignments);
+        }
     }
 
     private void validateStatusTransition(GameStatus current, GameStatus target) {
@@ -361,93 +407,129 @@ public class GameService {
                 .build();
     }
 
+    /**
+     * Returns a body that streams the game in the import format, gzip-compressed if asked to. Access
+     * is checked up front; rows are read through cursors in a separate read-only transaction while
+     * the response is written, and each item is serialized as it arrives. The bytes match what
+     * serializing a whole {@link GameExportDto} produced.
+     */
     @Transactional(readOnly = true)
-    public GameExportDto exportGame(UUID gameId) {
+    public StreamingResponseBody exportGame(UUID gameId, boolean gzip) {
         Game game = gameAccessService.getAccessibleGame(gameId);
-
-        // Fetch all related entities
-        List<Base> bases = baseRepository.findByGameId(gameId);
-        List<Challenge> challenges = challengeRepository.findByGameId(gameId);
-        List<Team> teams = teamRepository.findByGameId(gameId);
-        List<Assignment> assignments = assignmentRepository.findByGameId(gameId);
-
-        // Create ID mapping for export (UUID -> tempId)
-        Map<UUID, String> baseIdMap = new HashMap<>();
-        Map<UUID, String> challengeIdMap = new HashMap<>();
-        Map<UUID, String> teamIdMap = new HashMap<>();
-
-        for (int i = 0; i < bases.size(); i++) {
-            baseIdMap.put(bases.get(i).getId(), "base_" + (i + 1));
-        }
-        for (int i = 0; i < challenges.size(); i++) {
-            challengeIdMap.put(challenges.get(i).getId(), "challenge_" + (i + 1));
-        }
-        for (int i = 0; i < teams.size(); i++) {
-            teamIdMap.put(teams.get(i).getId(), "team_" + (i + 1));
-        }
-
-        // Convert entities to export DTOs
         GameMetadataDto gameMetadata = GameMetadataDto.builder()
                 .name(game.getName())
                 .description(game.getDescription())
                 .uniformAssignment(game.getUniformAssignment())
                 .build();
+        Instant exportedAt = Instant.now();
 
-        List<BaseExportDto> baseExportDtos = bases.stream()
-                .map(base -> BaseExportDto.builder()
-                        .tempId(baseIdMap.get(base.getId()))
-                        .name(base.getName())
-                        .description(base.getDescription())
-                        .lat(base.getLat())
-                        .lng(base.getLng())
-                        .hidden(base.getHidden())
-                        .requirePresenceToSubmit(base.getRequirePresenceToSubmit())
-                        .fixedChallengeTempId(base.getFixedChallenge() != null ?
-                                challengeIdMap.get(base.getFixedChallenge().getId()) : null)
-                        .build())
-                .collect(Collectors.toList());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
 
-        List<ChallengeExportDto> challengeExportDtos = challenges.stream()
-                .map(challenge -> ChallengeExportDto.builder()
-                        .tempId(challengeIdMap.get(challenge.getId()))
-                        .title(challenge.getTitle())
-                        .description(challenge.getDescription())
-                        .content(challenge.getContent())
-                        .completionContent(challenge.getCompletionContent())
-                        .answerType(challenge.getAnswerType())
-                        .autoValidate(challenge.getAutoValidate())
-                        .correctAnswer(challenge.getCorrectAnswer())
-                        .points(challenge.getPoints())
-                        .locationBound(challenge.getLocationBound())
-                        .build())
-                .collect(Collectors.toList());
+        return outputStream -> {
+            if (!gzip) {
+                writeExport(gameId, gameMetadata, exportedAt, readOnly, outputStream);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(outputStream, EXPORT_GZIP_BUFFER_SIZE);
+            writeExport(gameId, gameMetadata, exportedAt, readOnly, compressed);
+            compressed.finish();
+        };
+    }
 
-        List<TeamExportDto> teamExportDtos = teams.stream()
-                .map(team -> TeamExportDto.builder()
-                        .tempId(teamIdMap.get(team.getId()))
-                        .name(team.getName())
-                        .color(team.getColor())
-                        .build())
-                .collect(Collectors.toList());
+    private void writeExport(UUID gameId, GameMetadataDto gameMetadata, Instant exportedAt,
+                             TransactionTemplate readOnly, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Same field order as GameExportDto
+            generator.writeStartObject();
+            generator.writeFieldName("exportVersion");
+            writer.writeValue(generator, GameImportDocument.EXPORT_VERSION);
+            generator.writeFieldName("exportedAt");
+            writer.writeValue(generator, exportedAt);
+            generator.writeFieldName("game");
+            writer.writeValue(generator, gameMetadata);
+
+            readOnly.executeWithoutResult(status -> {
+                // UUID -> tempId; challenges and teams are referenced before they are written
+                Map<UUID, String> challengeIdMap = tempIds(gameExportRepository.findChallengeIds(gameId), "challenge_");
+                Map<UUID, String> teamIdMap = tempIds(gameExportRepository.findTeamIds(gameId), "team_");
+                Map<UUID, String> baseIdMap = new HashMap<>();
+
+                writeArray(generator, writer, "bases", item -> gameExportRepository.streamBases(gameId, base -> {
+                    String tempId = "base_" + (baseIdMap.size() + 1);
+                    baseIdMap.put(base.id(), tempId);
+                    item.accept(BaseExportDto.builder()
+                            .tempId(tempId)
+                            .name(base.name())
+                            .description(base.description())
+                            .lat(base.lat())
+                            .lng(base.lng())
+                            .hidden(base.hidden())
+                            .requirePresenceToSubmit(base.requirePresenceToSubmit())
+                            .fixedChallengeTempId(base.fixedChallengeId() != null ?
+                                    challengeIdMap.get(base.fixedChallengeId()) : null)
+                            .build());
+                }));
+
+                writeArray(generator, writer, "challenges", item -> gameExportRepository.streamChallenges(gameId,
+                        challenge -> item.accept(ChallengeExportDto.builder()
+                                .tempId(challengeIdMap.get(challenge.id()))
+                                .title(challenge.title())
+                                .description(challenge.description())
+                                .content(challenge.content())
+                                .completionContent(challenge.completionContent())
+                                .answerType(challenge.answerType())
+                                .autoValidate(challenge.autoValidate())
+                                .correctAnswer(challenge.correctAnswer())
+                                .points(challenge.points())
+                                .locationBound(challenge.locationBound())
+                                .build())));
+
+                writeArray(generator, writer, "assignments", item -> gameExportRepository.streamAssignments(gameId,
+                        assignment -> item.accept(AssignmentExportDto.builder()
+                                .baseTempId(baseIdMap.get(assignment.baseId()))
+                                .challengeTempId(challengeIdMap.get(assignment.challengeId()))
+                                .teamTempId(assignment.teamId() != null ?
+                                        teamIdMap.get(assignment.teamId()) : null)
+                                .build())));
+
+                writeArray(generator, writer, "teams", item -> gameExportRepository.streamTeams(gameId,
+                        team -> item.accept(TeamExportDto.builder()
+                                .tempId(teamIdMap.get(team.id()))
+                                .name(team.name())
+                                .color(team.color())
+                                .build())));
+            });
+            generator.writeEndObject();
+        }
+    }
 
-        List<AssignmentExportDto> assignmentExportDtos = assignments.stream()
-                .map(assignment -> AssignmentExportDto.builder()
-                        .baseTempId(baseIdMap.get(assignment.getBase().getId()))
-                        .challengeTempId(challengeIdMap.get(assignment.getChallenge().getId()))
-                        .teamTempId(assignment.getTeam() != null ?
-                                teamIdMap.get(assignment.getTeam().getId()) : null)
-                        .build())
-                .collect(Collectors.toList());
+    private static Map<UUID, String> tempIds(List<UUID> ids, String prefix) {
+        Map<UUID, String> tempIds = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            tempIds.put(ids.get(i), prefix + (i + 1));
+        }
+        return tempIds;
+    }
 
-        return GameExportDto.builder()
-                .exportVersion("1.0")
-                .exportedAt(Instant.now())
-                .game(gameMetadata)
-                .bases(baseExportDtos)
-                .challenges(challengeExportDtos)
-                .assignments(assignmentExportDtos)
-                .teams(teamExportDtos)
-                .build();
+    /** Writes {@code field} as an array of the items {@code source} hands over, one at a time. */
+    private static void writeArray(JsonGenerator generator, ObjectWriter writer, String field,
+                                   Consumer<Consumer<Object>> source) {
+        try {
+            generator.writeArrayFieldStart(field);
+            source.accept(item -> {
+                try {
+                    writer.writeValue(generator, item);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            generator.writeEndArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -464,298 +546,135 @@ public class GameService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
-    public GameResponse importGame(GameImportRequest request) {
+    /**
+     * Imports a game from a request body in the export format. The body is spooled to a temporary
+     * file and streamed twice, one item at a time: once to validate it, keeping only temp ids, and
+     * then once per table, in dependency order, to write the rows in batches. Validation only reads
+     * the spooled file, so the transaction (and its pooled connection) is opened for the writes only.
+     */
+    public GameResponse importGame(InputStream body) throws IOException {
+        try (GameImportDocument document = GameImportDocument.spool(body, objectMapper, importMaxSize.toBytes())) {
+            GameImportValidator validator = new GameImportValidator();
+            GameImportDocument.Header header = document.scan(validator::validate);
+            validator.validateHeader(header);
+            validator.validateReferences();
+            return transactionTemplate.execute(status -> importGame(document, header, validator.teamCount()));
+        }
+    }
+
+    private GameResponse importGame(GameImportDocument document, GameImportDocument.Header header, int teamCount) {
         User currentUser = SecurityUtils.getCurrentUser();
         // Re-fetch user within transaction
         UUID userId = currentUser.getId();
         currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
 
-        GameExportDto data = request.getGameData();
-
-        // Validate export version
-        if (!"1.0".equals(data.getExportVersion())) {
-            throw new BadRequestException("Unsupported export version: " + data.getExportVersion());
-        }
-
-        // Validate basic structure
-        if (data.getGame() == null) {
-            throw new BadRequestException("Game metadata is required");
-        }
-        if (data.getBases() == null) {
-            throw new BadRequestException("Bases data is required");
-        }
-        if (data.getChallenges() == null) {
-            throw new BadRequestException("Challenges data is required");
-        }
-        if (data.getAssignments() == null) {
-            throw new BadRequestException("Assignments data is required");
-        }
-
-        // Validate date range if both dates are provided
-        if (request.getStartDate() != null && request.getEndDate() != null
-                && request.getEndDate().isBefore(request.getStartDate())) {
-            throw new BadRequestException("End date must be after start date");
-        }
-
-        // Validate game name
-        if (data.getGame().getName() == null || data.getGame().getName().isBlank()) {
-            throw new BadRequestException("Game name is required");
-        }
-
-        // Collect tempIds for validation
-        Set<String> baseTempIds = new HashSet<>();
-        Set<String> challengeTempIds = new HashSet<>();
-        Set<String> teamTempIds = new HashSet<>();
-
-        // Validate base tempIds
-        for (int i = 0; i < data.getBases().size(); i++) {
-            BaseExportDto base = data.getBases().get(i);
-            String fieldPrefix = "bases[" + i + "]";
-
-            requireNotBlank(base.getTempId(), fieldPrefix + ".tempId");
-            requireNotBlank(base.getName(), fieldPrefix + ".name");
-            requireNotNull(base.getLat(), fieldPrefix + ".lat");
-            requireNotNull(base.getLng(), fieldPrefix + ".lng");
-            if (base.getFixedChallengeTempId() != null && base.getFixedChallengeTempId().isBlank()) {
-                throw new BadRequestException(fieldPrefix + ".fixedChallengeTempId cannot be blank");
-            }
-            if (!baseTempIds.add(base.getTempId())) {
-                throw new BadRequestException("Duplicate base tempId: " + base.getTempId());
-            }
-        }
-
-        // Validate challenge tempIds
-        for (int i = 0; i < data.getChallenges().size(); i++) {
-            ChallengeExportDto challenge = data.getChallenges().get(i);
-            String fieldPrefix = "challenges[" + i + "]";
-
-            requireNotBlank(challenge.getTempId(), fieldPrefix + ".tempId");
-            requireNotBlank(challenge.getTitle(), fieldPrefix + ".title");
-            requireNotNull(challenge.getAnswerType(), fieldPrefix + ".answerType");
-            requireNotNull(challenge.getPoints(), fieldPrefix + ".points");
-            if (challenge.getPoints() < 0) {
-                throw new BadRequestException(fieldPrefix + ".points must be greater than or equal to 0");
-            }
-            if (!challengeTempIds.add(challenge.getTempId())) {
-                throw new BadRequestException("Duplicate challenge tempId: " + challenge.getTempId());
-            }
-        }
-
-        // Validate team tempIds if teams are included
-        if (data.getTeams() != null) {
-            for (int i = 0; i < data.getTeams().size(); i++) {
-                TeamExportDto team = data.getTeams().get(i);
-                String fieldPrefix = "teams[" + i + "]";
-
-                requireNotBlank(team.getTempId(), fieldPrefix + ".tempId");
-                requireNotBlank(team.getName(), fieldPrefix + ".name");
-                requireNotBlank(team.getColor(), fieldPrefix + ".color");
-                if (team.getColor().length() > 7) {
-                    throw new BadRequestException(fieldPrefix + ".color must be at most 7 characters");
-                }
-                if (!teamTempIds.add(team.getTempId())) {
-                    throw new BadRequestException("Duplicate team tempId: " + team.getTempId());
-                }
-            }
-        }
-
-        // Validate assignment references
-        for (int i = 0; i < data.getAssignments().size(); i++) {
-            AssignmentExportDto assignment = data.getAssignments().get(i);
-            String fieldPrefix = "assignments[" + i + "]";
-
-            requireNotBlank(assignment.getBaseTempId(), fieldPrefix + ".baseTempId");
-            requireNotBlank(assignment.getChallengeTempId(), fieldPrefix + ".challengeTempId");
-            if (assignment.getTeamTempId() != null && assignment.getTeamTempId().isBlank()) {
-                throw new BadRequestException(fieldPrefix + ".teamTempId cannot be blank");
-            }
-
-            if (!baseTempIds.contains(assignment.getBaseTempId())) {
-                throw new BadRequestException("Assignment references non-existent base: " + assignment.getBaseTempId());
-            }
-            if (!challengeTempIds.contains(assignment.getChallengeTempId())) {
-                throw new BadRequestException("Assignment references non-existent challenge: " + assignment.getChallengeTempId());
-            }
-            if (assignment.getTeamTempId() != null && !teamTempIds.contains(assignment.getTeamTempId())) {
-                throw new BadRequestException("Assignment references non-existent team: " + assignment.getTeamTempId());
-            }
-        }
-
-        validateImportAssignmentConflicts(data.getAssignments());
-
-        // Validate fixed challenge references
-        for (int i = 0; i < data.getBases().size(); i++) {
-            BaseExportDto base = data.getBases().get(i);
-            if (base.getFixedChallengeTempId() != null &&
-                !challengeTempIds.contains(base.getFixedChallengeTempId())) {
-                throw new BadRequestException("Base at index " + i
-                        + " references non-existent fixed challenge: " + base.getFixedChallengeTempId());
-            }
-        }
-
-        // Create ID mapping tables
-        Map<String, UUID> baseIdMap = new HashMap<>();
-        Map<String, UUID> challengeIdMap = new HashMap<>();
-        Map<String, UUID> teamIdMap = new HashMap<>();
-
-        // Create game
-        Game newGame = Game.builder()
-                .name(data.getGame().getName())
-                .description(data.getGame().getDescription() != null ? data.getGame().getDescription() : "")
-                .startDate(request.getStartDate())
-                .endDate(request.getEndDate())
-                .uniformAssignment(data.getGame().getUniformAssignment() != null ? data.getGame().getUniformAssignment() : false)
+        GameMetadataDto metadata = header.game();
+        Game game = Game.builder()
+                .name(metadata.getName())
+                .description(metadata.getDescription() != null ? metadata.getDescription() : "")
+                .startDate(header.startDate())
+                .endDate(header.endDate())
+                .uniformAssignment(metadata.getUniformAssignment() != null ? metadata.getUniformAssignment() : false)
                 .status(GameStatus.setup)
                 .createdBy(currentUser)
                 .build();
-        newGame.getOperators().add(currentUser);
-        newGame = gameRepository.save(newGame);
-
-        // Create challenges first (no dependencies)
-        for (ChallengeExportDto chDto : data.getChallenges()) {
-            Challenge challenge = Challenge.builder()
-                    .game(newGame)
-                    .title(chDto.getTitle())
-                    .description(chDto.getDescription() != null ? chDto.getDescription() : "")
-                    .content(chDto.getContent() != null ? chDto.getContent() : "")
-                    .completionContent(chDto.getCompletionContent() != null ? chDto.getCompletionContent() : "")
-                    .answerType(chDto.getAnswerType())
-                    .autoValidate(chDto.getAutoValidate() != null ? chDto.getAutoValidate() : false)
-                    .correctAnswer(chDto.getCorrectAnswer())
-                    .points(chDto.getPoints())
-                    .locationBound(chDto.getLocationBound() != null ? chDto.getLocationBound() : false)
-                    .build();
-            challenge = challengeRepository.save(challenge);
-            challengeIdMap.put(chDto.getTempId(), challenge.getId());
-        }
-
-        // Create bases (may reference challenges via fixedChallengeId)
-        for (BaseExportDto baseDto : data.getBases()) {
-            Challenge fixedChallenge = null;
-            if (baseDto.getFixedChallengeTempId() != null) {
-                UUID challengeId = challengeIdMap.get(baseDto.getFixedChallengeTempId());
-                fixedChallenge = challengeRepository.findById(challengeId)
-                        .orElseThrow(() -> new IllegalStateException("Challenge not found"));
-            }
-
-            Base base = Base.builder()
-                    .game(newGame)
-                    .name(baseDto.getName())
-                    .description(baseDto.getDescription() != null ? baseDto.getDescription() : "")
-                    .lat(baseDto.getLat())
-                    .lng(baseDto.getLng())
-                    .nfcLinked(false)
-                    .hidden(baseDto.getHidden() != null ? baseDto.getHidden() : false)
-                    .requirePresenceToSubmit(baseDto.getRequirePresenceToSubmit() != null
-                            ? baseDto.getRequirePresenceToSubmit() : false)
-                    .fixedChallenge(fixedChallenge)
-                    .build();
-            base = baseRepository.save(base);
-            baseIdMap.put(baseDto.getTempId(), base.getId());
-        }
+        game.getOperators().add(currentUser);
+        Game newGame = gameRepository.save(game);
 
-        // Create teams if included
-        if (data.getTeams() != null && !data.getTeams().isEmpty()) {
-            for (TeamExportDto teamDto : data.getTeams()) {
-                String joinCode = generateUniqueJoinCode();
-                Team team = Team.builder()
+        // Challenges first (no dependencies)
+        Map<String, UUID> challengeIds = importSection(document, GameImportDocument.Section.CHALLENGES,
+                ChallengeExportDto::getTempId, Challenge::getId, chDto -> Challenge.builder()
+                        .game(newGame)
+                        .title(chDto.getTitle())
+                        .description(chDto.getDescription() != null ? chDto.getDescription() : "")
+                        .content(chDto.getContent() != null ? chDto.getContent() : "")
+                        .completionContent(chDto.getCompletionContent() != null ? chDto.getCompletionContent() : "")
+                        .answerType(chDto.getAnswerType())
+                        .autoValidate(chDto.getAutoValidate() != null ? chDto.getAutoValidate() : false)
+                        .correctAnswer(chDto.getCorrectAnswer())
+                        .points(chDto.getPoints())
+                        .locationBound(chDto.getLocationBound() != null ? chDto.getLocationBound() : false)
+                        .build());
+
+        // Bases (may reference challenges via fixedChallengeId)
+        Map<String, UUID> baseIds = importSection(document, GameImportDocument.Section.BASES,
+                BaseExportDto::getTempId, Base::getId, baseDto -> Base.builder()
+                        .game(newGame)
+                        .name(baseDto.getName())
+                        .description(baseDto.getDescription() != null ? baseDto.getDescription() : "")
+                        .lat(baseDto.getLat())
+                        .lng(baseDto.getLng())
+                        .nfcLinked(false)
+                        .hidden(baseDto.getHidden() != null ? baseDto.getHidden() : false)
+                        .requirePresenceToSubmit(baseDto.getRequirePresenceToSubmit() != null
+                                ? baseDto.getRequirePresenceToSubmit() : false)
+                        .fixedChallenge(baseDto.getFixedChallengeTempId() != null
+                                ? bulkPersister.reference(Challenge.class, challengeIds.get(baseDto.getFixedChallengeTempId()))
+                                : null)
+                        .build());
+
+        // Teams if included
+        Iterator<String> joinCodes = teamCount > 0
+                ? joinCodeGenerator.generate(teamCount).iterator()
+                : Collections.emptyIterator();
+        Map<String, UUID> teamIds = importSection(document, GameImportDocument.Section.TEAMS,
+                TeamExportDto::getTempId, Team::getId, teamDto -> Team.builder()
                         .game(newGame)
                         .name(teamDto.getName())
-                        .joinCode(joinCode)
+                        .joinCode(joinCodes.next())
                         .color(teamDto.getColor())
-                        .build();
-                team = teamRepository.save(team);
-                teamIdMap.put(teamDto.getTempId(), team.getId());
-            }
-        }
+                        .build());
 
-        // Create assignments
-        for (AssignmentExportDto assignDto : data.getAssignments()) {
-            UUID baseId = baseIdMap.get(assignDto.getBaseTempId());
-            UUID challengeId = challengeIdMap.get(assignDto.getChallengeTempId());
-            UUID teamId = assignDto.getTeamTempId() != null ?
-                    teamIdMap.get(assignDto.getTeamTempId()) : null;
-
-            Base base = baseRepository.findById(baseId).orElseThrow();
-            Challenge challenge = challengeRepository.findById(challengeId).orElseThrow();
-            Team team = teamId != null ? teamRepository.findById(teamId).orElse(null) : null;
-
-            Assignment assignment = Assignment.builder()
-                    .game(newGame)
-                    .base(base)
-                    .challenge(challenge)
-                    .team(team)
-                    .build();
-            assignmentRepository.save(assignment);
-        }
+        // Assignments
+        importSection(document, GameImportDocument.Section.ASSIGNMENTS,
+                assignDto -> null, Assignment::getId, assignDto -> Assignment.builder()
+                        .game(newGame)
+                        .base(bulkPersister.reference(Base.class, baseIds.get(assignDto.getBaseTempId())))
+                        .challenge(bulkPersister.reference(Challenge.class, challengeIds.get(assignDto.getChallengeTempId())))
+                        .team(assignDto.getTeamTempId() != null
+                                ? bulkPersister.reference(Team.class, teamIds.get(assignDto.getTeamTempId()))
+                                : null)
+                        .build());
 
         return toResponse(newGame);
     }
 
-    private void validateImportAssignmentConflicts(List<AssignmentExportDto> assignments) {
-        Set<String> seenTeamSpecific = new HashSet<>();
-        Set<String> basesWithAllTeams = new HashSet<>();
-        Set<String> basesWithTeamSpecific = new HashSet<>();
-
-        for (AssignmentExportDto assignment : assignments) {
-            String baseTempId = assignment.getBaseTempId();
-            String teamTempId = assignment.getTeamTempId();
-
-            if (teamTempId == null) {
-                if (basesWithTeamSpecific.contains(baseTempId)) {
-                    throw new ConflictException("Cannot mix 'All Teams' and team-specific assignments for base: " + baseTempId);
-                }
-                if (!basesWithAllTeams.add(baseTempId)) {
-                    throw new ConflictException("Duplicate 'All Teams' assignment for base: " + baseTempId);
-                }
-                continue;
-            }
-
-            if (basesWithAllTeams.contains(baseTempId)) {
-                throw new ConflictException("Cannot mix team-specific and 'All Teams' assignments for base: " + baseTempId);
+    /**
+     * Streams one section of an import into the database, {@value #IMPORT_BATCH_SIZE} rows per
+     * flush. Written rows are detached right away so long challenge content is not kept around;
+     * later sections refer to them through the returned tempId to id map.
+     */
+    private <D, E> Map<String, UUID> importSection(GameImportDocument document, GameImportDocument.Section<D> section,
+                                                   Function<D, String> tempId, Function<E, UUID> id,
+                                                   Function<D, E> toEntity) {
+        Map<String, UUID> ids = new HashMap<>();
+        List<String> tempIds = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<E> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        Runnable flush = () -> {
+            if (batch.isEmpty()) {
+                return;
             }
-
-            String key = baseTempId + ":" + teamTempId;
-            if (!seenTeamSpecific.add(key)) {
-                throw new ConflictException("Duplicate assignment for base/team: " + key);
+            List<E> entities = new ArrayList<>(batch);
+            batch.clear();
+            bulkPersister.persistAll(entities);
+            for (int i = 0; i < entities.size(); i++) {
+                if (tempIds.get(i) != null) {
+                    ids.put(tempIds.get(i), id.apply(entities.get(i)));
+                }
             }
-            basesWithTeamSpecific.add(baseTempId);
-        }
-    }
+            tempIds.clear();
+            bulkPersister.detachAll(entities);
+        };
 
-    private String generateUniqueJoinCode() {
-        String code;
-        int attempts = 0;
-        do {
-            code = generateRandomCode(6);
-            attempts++;
-            if (attempts > 100) {
-                throw new IllegalStateException("Unable to generate unique join code");
+        document.forEach(section, (path, item) -> {
+            tempIds.add(tempId.apply(item));
+            batch.add(toEntity.apply(item));
+            if (batch.size() >= IMPORT_BATCH_SIZE) {
+                flush.run();
             }
-        } while (teamRepository.findByJoinCode(code).isPresent());
-        return code;
-    }
-
-    private String generateRandomCode(int length) {
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        Random random = new Random();
-        return random.ints(length, 0, chars.length())
-                .mapToObj(chars::charAt)
-                .map(String::valueOf)
-                .collect(Collectors.joining());
-    }
-
-    private void requireNotBlank(String value, String fieldName) {
-        if (value == null || value.isBlank()) {
-            throw new BadRequestException(fieldName + " is required");
-        }
-    }
-
-    private void requireNotNull(Object value, String fieldName) {
-        if (value == null) {
-            throw new BadRequestException(fieldName + " is required");
-        }
+        });
+        flush.run();
+        return ids;
     }
 }
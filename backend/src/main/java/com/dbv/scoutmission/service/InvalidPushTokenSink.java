@@ -0,0 +1,82 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.PushProperties;
+import com.dbv.scoutmission.repository.PlayerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects push tokens that APNs or FCM reported as permanently invalid (app uninstalled, token
+ * malformed) and clears them from players in periodic batches, one UPDATE per batch, so later
+ * announcements stop fanning out to dead devices.
+ */
+@Slf4j
+@Component
+public class InvalidPushTokenSink {
+
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PushProperties properties;
+    private final Counter prunedTokens;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public InvalidPushTokenSink(PlayerRepository playerRepository,
+                                TransactionTemplate transactionTemplate,
+                                PushProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.prunedTokens = Counter.builder("scoutmission.push.pruned_tokens")
+                .description("Players whose push token was cleared after the provider rejected it")
+                .register(meterRegistry);
+    }
+
+    public void report(String token) {
+        if (token != null) {
+            pending.add(token);
+        }
+    }
+
+    @Scheduled(fixedRate = 30000, initialDelay = 30000)
+    public void flush() {
+        while (!pending.isEmpty()) {
+            List<String> batch = new ArrayList<>(properties.getPruneBatchSize());
+            for (String token : pending) {
+                batch.add(token);
+                if (batch.size() == properties.getPruneBatchSize()) {
+                    break;
+                }
+            }
+            try {
+                Integer cleared = transactionTemplate.execute(status -> playerRepository.clearPushTokens(batch));
+                batch.forEach(pending::remove);
+                prunedTokens.increment(cleared != null ? cleared : 0);
+                log.info("Cleared {} invalid push tokens ({} players)", batch.size(), cleared);
+            } catch (Exception ex) {
+                // Keep the tokens for the next run
+                log.warn("Failed to clear {} invalid push tokens: {}", batch.size(), ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+}
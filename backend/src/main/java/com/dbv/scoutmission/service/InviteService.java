@@ -11,6 +11,7 @@ import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.OperatorInviteRepository;
 import com.dbv.scoutmission.repository.UserRepository;
 import com.dbv.scoutmission.security.SecurityUtils;
+import com.dbv.scoutmission.websocket.WebSocketAuthCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,7 @@ public class InviteService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final GameAccessService gameAccessService;
+    private final WebSocketAuthCache webSocketAuthCache;
 
     @Transactional(readOnly = true)
     public List<InviteResponse> getGlobalInvites() {
@@ -89,11 +91,11 @@ public class InviteService {
 
         invite = inviteRepository.save(invite);
 
-        // Send email notification
+        // Email is sent after commit, through the outbox
         if (game != null) {
-            emailService.sendGameInvite(request.getEmail(), game.getName(), currentUser.getName());
+            emailService.queueGameInvite(request.getEmail(), game.getName(), currentUser.getName());
         } else {
-            emailService.sendRegistrationInvite(request.getEmail(), invite.getToken(), currentUser.getName());
+            emailService.queueRegistrationInvite(request.getEmail(), invite.getToken(), currentUser.getName());
         }
 
         return toResponse(invite);
@@ -125,6 +127,7 @@ public class InviteService {
 
         // Add user to the game's operators
         invite.getGame().getOperators().add(currentUser);
+        webSocketAuthCache.invalidateUserAccessAfterCommit(userId, invite.getGame().getId());
     }
 
     private InviteResponse toResponse(OperatorInvite inv) {
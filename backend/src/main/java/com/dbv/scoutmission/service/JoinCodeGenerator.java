@@ -0,0 +1,58 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random team join codes, checked against existing teams with one query per round rather than
+ * one per code, so creating many teams at once costs a single lookup in the common case.
+ */
+@Component
+@RequiredArgsConstructor
+public class JoinCodeGenerator {
+
+    private static final String CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int LENGTH = 7;
+    private static final int MAX_ROUNDS = 20;
+
+    private final TeamRepository teamRepository;
+
+    public String generate() {
+        return generate(1).get(0);
+    }
+
+    /** {@code count} distinct codes not used by any team. */
+    public List<String> generate(int count) {
+        Set<String> codes = new HashSet<>();
+        for (int round = 0; round < MAX_ROUNDS && codes.size() < count; round++) {
+            Set<String> candidates = new HashSet<>();
+            while (candidates.size() < count - codes.size()) {
+                String candidate = randomCode();
+                if (!codes.contains(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            candidates.removeAll(teamRepository.findExistingJoinCodes(candidates));
+            codes.addAll(candidates);
+        }
+        if (codes.size() < count) {
+            throw new IllegalStateException("Unable to generate unique team join code");
+        }
+        return new ArrayList<>(codes);
+    }
+
+    private static String randomCode() {
+        StringBuilder sb = new StringBuilder(LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            sb.append(CHARS.charAt(ThreadLocalRandom.current().nextInt(CHARS.length())));
+        }
+        return sb.toString();
+    }
+}
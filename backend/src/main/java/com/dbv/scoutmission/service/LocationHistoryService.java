@@ -0,0 +1,162 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.LocationHistoryProperties;
+import com.dbv.scoutmission.entity.Team;
+import com.dbv.scoutmission.exception.BadRequestException;
+import com.dbv.scoutmission.exception.ResourceNotFoundException;
+import com.dbv.scoutmission.repository.TeamLocationHistoryRepository;
+import com.dbv.scoutmission.repository.TeamRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationHistoryService {
+
+    /**
+     * Downsampling tiers: fixes older than one hour are reduced to one point per 30 seconds,
+     * and older than a day to one point per five minutes.
+     */
+    private static final List<DownsampleTier> TIERS = List.of(
+            new DownsampleTier(Duration.ofHours(1), 30),
+            new DownsampleTier(Duration.ofHours(24), 300));
+
+    /** How far behind each tier's cutoff a run looks, so a backend outage does not leave gaps. */
+    private static final Duration DOWNSAMPLE_LOOKBACK = Duration.ofDays(2);
+
+    private final TeamLocationHistoryRepository historyRepository;
+    private final TeamRepository teamRepository;
+    private final GameAccessService gameAccessService;
+    private final LocationHistoryProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public void record(UUID teamId, double lat, double lng, Instant recordedAt) {
+        historyRepository.append(teamId, lat, lng, recordedAt);
+    }
+
+    /**
+     * Returns a body that streams the team's trail as a JSON array, oldest point first. Access is
+     * checked up front; rows are read in a separate read-only transaction while the response is
+     * written.
+     */
+    @Transactional(readOnly = true)
+    public StreamingResponseBody streamTrail(UUID gameId, UUID teamId, Instant from, Instant to) {
+        gameAccessService.ensureCurrentUserCanAccessGame(gameId);
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team", teamId));
+        if (!team.getGame().getId().equals(gameId)) {
+            throw new BadRequestException("Team does not belong to this game");
+        }
+
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                readOnly.executeWithoutResult(status -> historyRepository.streamTrail(
+                        teamId, start.getEpochSecond(), end.getEpochSecond(),
+                        (recordedAt, resolution, lat, lng) -> {
+                            try {
+                                generator.writeStartObject();
+                                generator.writeStringField("recordedAt", Instant.ofEpochSecond(recordedAt).toString());
+                                generator.writeNumberField("resolutionSeconds", resolution);
+                                generator.writeNumberField("lat", lat);
+                                generator.writeNumberField("lng", lng);
+                                generator.writeEndObject();
+                            } catch (IOException ex) {
+                                throw new UncheckedIOException(ex);
+                            }
+                        }));
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    @Transactional
+    public void deleteByGameId(UUID gameId) {
+        historyRepository.deleteByGameId(gameId);
+    }
+
+    /**
+     * Keeps daily partitions created ahead of time and drops partitions past the retention
+     * window. Runs at startup and then hourly.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedRate = 3600000, initialDelay = 3600000)
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            LocalDate day = today.plusDays(i);
+            try {
+                historyRepository.createDailyPartition(day);
+            } catch (DataAccessException ex) {
+                // Fails if the default partition already holds rows for that day
+                log.warn("Could not create location history partition for {}: {}", day, ex.getMessage());
+            }
+        }
+
+        if (properties.getRetentionDays() <= 0) {
+            return;
+        }
+        LocalDate oldestKept = today.minusDays(properties.getRetentionDays());
+        for (String partition : historyRepository.findDailyPartitionNames()) {
+            if (TeamLocationHistoryRepository.partitionDay(partition).isBefore(oldestKept)) {
+                log.info("Dropping expired location history partition {}", partition);
+                historyRepository.dropPartition(partition);
+            }
+        }
+    }
+
+    /**
+     * Replaces fine-grained fixes with per-bucket averages once they age past each tier.
+     */
+    @Scheduled(fixedRate = 300000, initialDelay = 60000)
+    @Transactional
+    public void downsample() {
+        long now = Instant.now().getEpochSecond();
+        for (DownsampleTier tier : TIERS) {
+            long to = alignDown(now - tier.olderThan().toSeconds(), tier.bucketSeconds());
+            long from = alignDown(to - DOWNSAMPLE_LOOKBACK.toSeconds(), tier.bucketSeconds());
+            int written = historyRepository.downsample(tier.bucketSeconds(), from, to);
+            if (written > 0) {
+                log.debug("Downsampled location history to {}s buckets: {} rows", tier.bucketSeconds(), written);
+            }
+        }
+    }
+
+    private static long alignDown(long epochSecond, int bucketSeconds) {
+        return epochSecond - Math.floorMod(epochSecond, bucketSeconds);
+    }
+
+    private record DownsampleTier(Duration olderThan, int bucketSeconds) {
+    }
+}
@@ -4,6 +4,7 @@ import com.dbv.scoutmission.dto.response.*;
 import com.dbv.scoutmission.entity.*;
 import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.*;
+import com.dbv.scoutmission.websocket.WebSocketSessionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +26,7 @@ public class MonitoringService {
     private final CheckInRepository checkInRepository;
     private final AssignmentRepository assignmentRepository;
     private final GameAccessService gameAccessService;
+    private final WebSocketSessionRegistry sessionRegistry;
 
     @Transactional(readOnly = true)
     public DashboardResponse getDashboard(UUID gameId) {
@@ -55,29 +57,14 @@ public class MonitoringService {
     public List<LeaderboardEntry> getLeaderboard(UUID gameId) {
         gameAccessService.ensureCurrentUserCanAccessGame(gameId);
         List<Team> teams = teamRepository.findByGameId(gameId);
-        List<Submission> submissions = submissionRepository.findByGameId(gameId);
-
-        // Group submissions by team
-        Map<UUID, List<Submission>> byTeam = submissions.stream()
-                .collect(Collectors.groupingBy(s -> s.getTeam().getId()));
+        Map<UUID, SubmissionRepository.TeamScore> scoresByTeam = submissionRepository.findTeamScoresByGameId(gameId)
+                .stream()
+                .collect(Collectors.toMap(SubmissionRepository.TeamScore::getTeamId, score -> score));
 
         return teams.stream().map(team -> {
-            List<Submission> teamSubs = byTeam.getOrDefault(team.getId(), List.of());
-
-            Map<UUID, Submission> scoredByChallenge = teamSubs.stream()
-                    .filter(s -> s.getStatus() == SubmissionStatus.correct
-                            || s.getStatus() == SubmissionStatus.approved)
-                    .collect(Collectors.toMap(
-                            s -> s.getChallenge().getId(),
-                            s -> s,
-                            (first, second) -> first.getSubmittedAt().isAfter(second.getSubmittedAt()) ? first : second
-                    ));
-
-            int points = scoredByChallenge.values().stream()
-                    .mapToInt(s -> s.getChallenge().getPoints())
-                    .sum();
-
-            int completed = scoredByChallenge.size();
+            SubmissionRepository.TeamScore score = scoresByTeam.get(team.getId());
+            int points = score != null ? (int) score.getPoints() : 0;
+            int completed = score != null ? (int) score.getCompletedChallenges() : 0;
 
             return LeaderboardEntry.builder()
                     .teamId(team.getId())
@@ -114,7 +101,7 @@ public class MonitoringService {
         List<Team> teams = teamRepository.findByGameId(gameId);
         List<Base> bases = baseRepository.findByGameId(gameId);
         List<CheckIn> checkIns = checkInRepository.findByGameId(gameId);
-        List<Submission> submissions = submissionRepository.findByGameId(gameId);
+        List<Submission> latestSubmissions = submissionRepository.findLatestPerTeamAndBaseByGameId(gameId);
         List<Assignment> assignments = assignmentRepository.findByGameId(gameId);
         List<Assignment> sortedAssignments = assignments.stream()
                 .sorted(
@@ -133,15 +120,11 @@ public class MonitoringService {
                         Collectors.toMap(ci -> ci.getBase().getId(), ci -> ci)
                 ));
 
-        // Group submissions by team+base (keep latest per base)
-        Map<UUID, Map<UUID, Submission>> submissionsByTeamBase = submissions.stream()
+        // Group latest submissions by team+base (the query already returns one per cell)
+        Map<UUID, Map<UUID, Submission>> submissionsByTeamBase = latestSubmissions.stream()
                 .collect(Collectors.groupingBy(
                         s -> s.getTeam().getId(),
-                        Collectors.toMap(
-                                s -> s.getBase().getId(),
-                                s -> s,
-                                (a, b) -> a.getSubmittedAt().isAfter(b.getSubmittedAt()) ? a : b
-                        )
+                        Collectors.toMap(s -> s.getBase().getId(), s -> s)
                 ));
 
         // Group assignments: team-specific take priority, then global (team==null)
@@ -182,13 +165,7 @@ public class MonitoringService {
 
                 if (sub != null) {
                     submissionStatus = sub.getStatus().name();
-                    if (sub.getStatus() == SubmissionStatus.approved || sub.getStatus() == SubmissionStatus.correct) {
-                        status = "completed";
-                    } else if (sub.getStatus() == SubmissionStatus.rejected) {
-                        status = "rejected";
-                    } else {
-                        status = "submitted";
-                    }
+                    status = sub.getStatus().progressStatus();
                 } else if (ci != null) {
                     status = "checked_in";
                 } else {
@@ -221,4 +198,16 @@ public class MonitoringService {
                         .build())
                 .collect(Collectors.toList());
     }
+
+    /** Open WebSocket sessions for the game on this backend node. */
+    @Transactional(readOnly = true)
+    public ConnectionsResponse getConnections(UUID gameId) {
+        gameAccessService.ensureCurrentUserCanAccessGame(gameId);
+        WebSocketSessionRegistry.ConnectionCounts counts = sessionRegistry.connectionCounts(gameId);
+        return ConnectionsResponse.builder()
+                .totalConnections(counts.total())
+                .operatorConnections(counts.operators())
+                .playerConnections(counts.players())
+                .build();
+    }
 }
@@ -4,26 +4,32 @@ import com.dbv.scoutmission.dto.request.CreateNotificationRequest;
 import com.dbv.scoutmission.dto.response.NotificationResponse;
 import com.dbv.scoutmission.entity.Game;
 import com.dbv.scoutmission.entity.GameNotification;
-import com.dbv.scoutmission.entity.Player;
 import com.dbv.scoutmission.entity.PushPlatform;
 import com.dbv.scoutmission.entity.Team;
 import com.dbv.scoutmission.entity.User;
+import com.dbv.scoutmission.event.NotificationCreatedEvent;
 import com.dbv.scoutmission.exception.BadRequestException;
 import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.GameNotificationRepository;
 import com.dbv.scoutmission.repository.GameRepository;
 import com.dbv.scoutmission.repository.PlayerRepository;
+import com.dbv.scoutmission.repository.PushTarget;
 import com.dbv.scoutmission.repository.TeamRepository;
 import com.dbv.scoutmission.repository.UserRepository;
 import com.dbv.scoutmission.security.SecurityUtils;
-import com.dbv.scoutmission.websocket.GameEventBroadcaster;
+import com.dbv.scoutmission.websocket.WebSocketSessionRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -36,10 +42,10 @@ public class NotificationService {
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final PlayerRepository playerRepository;
-    private final GameEventBroadcaster eventBroadcaster;
-    private final ApnsPushService apnsPushService;
-    private final FcmPushService fcmPushService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PushDispatcher pushDispatcher;
     private final GameAccessService gameAccessService;
+    private final WebSocketSessionRegistry sessionRegistry;
 
     @Transactional(readOnly = true)
     public List<NotificationResponse> getNotificationsByGame(UUID gameId) {
@@ -77,48 +83,55 @@ public class NotificationService {
 
         notification = notificationRepository.save(notification);
 
-        // Broadcast via WebSocket
+        // The broadcast runs after commit, on the event dispatcher; push rows commit with the notification
         NotificationResponse response = toResponse(notification);
-        eventBroadcaster.broadcastNotification(gameId, response);
-
-        // Send push notifications to players on teams with registered push tokens
-        List<Player> pushTargets;
-        if (targetTeam != null) {
-            pushTargets = playerRepository.findByTeamIdAndPushTokenIsNotNull(targetTeam.getId());
-        } else {
-            pushTargets = playerRepository.findByTeamGameIdAndPushTokenIsNotNull(gameId);
-        }
+        eventPublisher.publishEvent(new NotificationCreatedEvent(gameId, response));
+        sendPushNotifications(gameId, game.getName(), response);
 
-        if (!pushTargets.isEmpty()) {
-            List<String> apnsTokens = pushTargets.stream()
-                    .filter(p -> p.getPushPlatform() == null || p.getPushPlatform() == PushPlatform.ios)
-                    .map(Player::getPushToken)
-                    .toList();
-            List<String> fcmTokens = pushTargets.stream()
-                    .filter(p -> p.getPushPlatform() == PushPlatform.android)
-                    .map(Player::getPushToken)
-                    .toList();
-
-            if (!apnsTokens.isEmpty()) {
-                apnsPushService.sendPush(
-                        apnsTokens,
-                        game.getName(),
-                        request.getMessage(),
-                        Map.of("gameId", gameId.toString())
-                );
-            }
+        return response;
+    }
 
-            if (!fcmTokens.isEmpty()) {
-                fcmPushService.sendPush(
-                        fcmTokens,
-                        game.getName(),
-                        request.getMessage(),
-                        Map.of("gameId", gameId.toString())
-                );
-            }
+    /**
+     * Sends push notifications to the devices of the targeted team, or of every team of the game.
+     * The pushes are recorded in the outbox within the notification's transaction and delivered
+     * after commit.
+     */
+    private void sendPushNotifications(UUID gameId, String gameName, NotificationResponse notification) {
+        Map<PushPlatform, List<String>> tokens = resolvePushTokens(gameId, notification.getTargetTeamId());
+        if (tokens.values().stream().allMatch(List::isEmpty)) {
+            return;
         }
+        pushDispatcher.dispatch(gameId, "notification", notification.getId(), tokens,
+                new PushMessage(gameName, notification.getMessage(), Map.of("gameId", gameId.toString())));
+    }
 
-        return response;
+    /**
+     * Distinct device tokens of the team, or of every team of the game when {@code teamId} is
+     * null, by platform. A device shared by several players is pushed once, and devices with an
+     * open WebSocket session on this node are left out: they already receive frames over it.
+     */
+    @Transactional(readOnly = true)
+    public Map<PushPlatform, List<String>> resolvePushTokens(UUID gameId, UUID teamId) {
+        List<PushTarget> targets = teamId != null
+                ? playerRepository.findPushTargetsByTeamId(teamId)
+                : playerRepository.findPushTargetsByGameId(gameId);
+
+        Set<UUID> connectedPlayers = sessionRegistry.connectedPlayerIds(gameId);
+        Set<String> connectedTokens = connectedPlayers.isEmpty()
+                ? Set.of()
+                : new HashSet<>(playerRepository.findPushTokensByIdIn(connectedPlayers));
+
+        Map<PushPlatform, List<String>> tokens = new EnumMap<>(PushPlatform.class);
+        tokens.put(PushPlatform.ios, new ArrayList<>());
+        tokens.put(PushPlatform.android, new ArrayList<>());
+        for (PushTarget target : targets) {
+            if (connectedTokens.contains(target.token())) {
+                continue;
+            }
+            PushPlatform platform = target.platform() == PushPlatform.android ? PushPlatform.android : PushPlatform.ios;
+            tokens.get(platform).add(target.token());
+        }
+        return tokens;
     }
 
     private NotificationResponse toResponse(GameNotification n) {
@@ -0,0 +1,27 @@
+package com.dbv.scoutmission.service;
+
+/**
+ * Delivers outbox rows of one type. Handlers are called at least once per row, possibly on
+ * another node than the one that wrote it, so delivery should tolerate repeats.
+ *
+ * @param <P> payload stored as JSON in the row
+ */
+public interface OutboxHandler<P> {
+
+    String type();
+
+    Class<P> payloadType();
+
+    /**
+     * Delivers the payload.
+     *
+     * @param attempt 1 for the first delivery
+     * @return {@code null} when done, or the part of the payload still to deliver, which is
+     *         retried after a backoff. Throwing retries the whole payload.
+     */
+    P handle(P payload, int attempt) throws Exception;
+
+    /** Called once the row ran out of attempts; {@code payload} is what was left undelivered. */
+    default void abandoned(P payload, int attempts) {
+    }
+}
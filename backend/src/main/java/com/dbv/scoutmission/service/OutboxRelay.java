@@ -0,0 +1,201 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.OutboxProperties;
+import com.dbv.scoutmission.repository.OutboxRepository;
+import com.dbv.scoutmission.repository.OutboxRepository.OutboxRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox rows through their {@link OutboxHandler}. Every node runs a relay; rows are
+ * claimed with {@code FOR UPDATE SKIP LOCKED} and leased, so relays never deliver the same row
+ * concurrently and rows claimed by a node that dies are delivered by another once the lease ends.
+ * <p>
+ * The relay polls on a fixed delay and is also woken right after a transaction that enqueued rows
+ * commits on this node. Rows that are not fully delivered are retried with exponential backoff
+ * (with jitter) until {@code app.outbox.max-attempts}, after which they are kept as failed.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectProvider<OutboxHandler<?>> handlerProvider;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile Map<String, OutboxHandler<?>> handlers;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ObjectProvider<OutboxHandler<?>> handlerProvider,
+                       ObjectMapper objectMapper,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.handlerProvider = handlerProvider;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        // The queue stays short: at most batch-size rows are in flight, plus one pending poll
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("outbox-");
+        pool.setCorePoolSize(properties.getWorkers());
+        pool.setMaxPoolSize(properties.getWorkers());
+        pool.setWaitForTasksToCompleteOnShutdown(true);
+        pool.setAwaitTerminationSeconds(10);
+        pool.initialize();
+        this.executor = pool;
+
+        Gauge.builder("scoutmission.outbox.in_flight", inFlight, AtomicInteger::get)
+                .description("Outbox rows claimed by this node and not yet settled")
+                .register(meterRegistry);
+    }
+
+    /** Polls soon, without blocking the caller. Wake-ups during a running poll coalesce into one more poll. */
+    public void wakeUp() {
+        executor.execute(this::poll);
+    }
+
+    @Scheduled(fixedDelay = 2000)
+    public void poll() {
+        wakeRequested.set(true);
+        while (wakeRequested.get() && polling.compareAndSet(false, true)) {
+            try {
+                while (wakeRequested.getAndSet(false)) {
+                    claimDue();
+                }
+            } catch (Exception ex) {
+                log.warn("Outbox poll failed: {}", ex.getMessage());
+            } finally {
+                polling.set(false);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void claimDue() {
+        while (true) {
+            int capacity = properties.getBatchSize() - inFlight.get();
+            if (capacity <= 0) {
+                // The row that frees a slot wakes the relay again
+                return;
+            }
+            List<OutboxRow> rows = outboxRepository.claim(capacity, properties.getLease());
+            for (OutboxRow row : rows) {
+                inFlight.incrementAndGet();
+                executor.execute(() -> settle(row));
+            }
+            if (rows.size() < capacity) {
+                return;
+            }
+        }
+    }
+
+    private void settle(OutboxRow row) {
+        try {
+            deliver(row);
+        } catch (Exception ex) {
+            // The lease runs out and the row is claimed again
+            log.warn("Failed to settle outbox row {} ({}): {}", row.id(), row.type(), ex.getMessage());
+        } finally {
+            if (inFlight.decrementAndGet() == properties.getBatchSize() - 1) {
+                wakeUp();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(OutboxRow row) throws Exception {
+        OutboxHandler<Object> handler = (OutboxHandler<Object>) handlers().get(row.type());
+        if (handler == null) {
+            outboxRepository.markFailed(row.id(), row.payload(), "No handler for type " + row.type());
+            counter(row.type(), "failed").increment();
+            return;
+        }
+
+        Object payload = objectMapper.readValue(row.payload(), handler.payloadType());
+        Object remaining;
+        String error = null;
+        try {
+            remaining = handler.handle(payload, row.attempts());
+        } catch (Exception ex) {
+            log.warn("Outbox {} delivery attempt {} of row {} failed: {}", row.type(), row.attempts(), row.id(),
+                    ex.getMessage());
+            remaining = payload;
+            error = ex.getMessage();
+        }
+
+        if (remaining == null) {
+            outboxRepository.delete(row.id());
+            counter(row.type(), "delivered").increment();
+            return;
+        }
+
+        String remainingJson = objectMapper.writeValueAsString(remaining);
+        if (row.attempts() >= properties.getMaxAttempts()) {
+            log.warn("Giving up on outbox {} row {} after {} attempts", row.type(), row.id(), row.attempts());
+            outboxRepository.markFailed(row.id(), remainingJson, error);
+            counter(row.type(), "failed").increment();
+            handler.abandoned(remaining, row.attempts());
+            return;
+        }
+
+        Duration delay = backoff(row.attempts());
+        log.info("Retrying outbox {} row {} in {}ms", row.type(), row.id(), delay.toMillis());
+        outboxRepository.reschedule(row.id(), remainingJson, delay, error);
+        counter(row.type(), "retried").increment();
+    }
+
+    private Map<String, OutboxHandler<?>> handlers() {
+        // Resolved on first use: handlers enqueue through OutboxService, which depends on this relay
+        Map<String, OutboxHandler<?>> resolved = handlers;
+        if (resolved == null) {
+            resolved = handlerProvider.orderedStream()
+                    .collect(Collectors.toUnmodifiableMap(OutboxHandler::type, Function.identity()));
+            handlers = resolved;
+        }
+        return resolved;
+    }
+
+    private Duration backoff(int attempt) {
+        double millis = properties.getInitialBackoff().toMillis()
+                * Math.pow(properties.getBackoffMultiplier(), attempt - 1);
+        long capped = (long) Math.min(millis, properties.getMaxBackoff().toMillis());
+        // Jitter so rows that failed together are not retried in lockstep
+        return Duration.ofMillis(capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1));
+    }
+
+    private Counter counter(String type, String outcome) {
+        return Counter.builder("scoutmission.outbox.rows")
+                .description("Outbox rows settled by type and outcome")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records side effects (push, email) in the outbox as part of the caller's transaction. They are
+ * delivered at least once by the {@link OutboxRelay} after commit, and never for rolled-back work.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay relay;
+
+    /**
+     * @param type    selects the {@link OutboxHandler} that delivers the row
+     * @param payload serialized as JSON; must deserialize into the handler's payload type
+     */
+    public void enqueue(String type, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Outbox payload of type " + type + " is not serializable", ex);
+        }
+        outboxRepository.insert(type, json);
+
+        // Deliver right after commit instead of waiting for the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        } else {
+            relay.wakeUp();
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.dbv.scoutmission.service;
 
+import com.dbv.scoutmission.config.ProximityProperties;
 import com.dbv.scoutmission.dto.request.CreateSubmissionRequest;
 import com.dbv.scoutmission.dto.request.PlayerJoinRequest;
 import com.dbv.scoutmission.dto.request.PlayerSubmissionRequest;
 import com.dbv.scoutmission.dto.response.*;
 import com.dbv.scoutmission.entity.*;
+import com.dbv.scoutmission.event.ActivityRecordedEvent;
+import com.dbv.scoutmission.event.TeamLocationUpdatedEvent;
 import com.dbv.scoutmission.exception.BadRequestException;
 import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.*;
 import com.dbv.scoutmission.security.JwtTokenProvider;
-import com.dbv.scoutmission.websocket.GameEventBroadcaster;
+import com.dbv.scoutmission.websocket.GameEventFrame;
+import com.dbv.scoutmission.websocket.WebSocketAuthCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,10 +42,14 @@ public class PlayerService {
     private final CheckInRepository checkInRepository;
     private final SubmissionRepository submissionRepository;
     private final ActivityEventRepository activityEventRepository;
-    private final GameEventBroadcaster eventBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
     private final JwtTokenProvider tokenProvider;
     private final SubmissionService submissionService;
     private final TeamLocationRepository teamLocationRepository;
+    private final LocationHistoryService locationHistoryService;
+    private final BaseProximityIndex proximityIndex;
+    private final ProximityProperties proximityProperties;
+    private final WebSocketAuthCache webSocketAuthCache;
     private final GameAccessService gameAccessService;
 
     @Transactional
@@ -149,7 +158,8 @@ public class PlayerService {
         if (event.getBase() != null) event.getBase().getId();
         if (event.getChallenge() != null) event.getChallenge().getId();
 
-        eventBroadcaster.broadcastActivityEvent(gameId, event);
+        eventPublisher.publishEvent(new ActivityRecordedEvent(gameId, event,
+                new ActivityRecordedEvent.ProgressCell(team.getId(), baseId, "checked_in", null)));
 
         return buildCheckInResponse(checkIn, base, team);
     }
@@ -168,18 +178,14 @@ public class PlayerService {
 
         List<Base> bases = baseRepository.findByGameId(gameId);
         List<CheckIn> checkIns = checkInRepository.findByGameIdAndTeamId(gameId, team.getId());
-        List<Submission> submissions = submissionRepository.findByTeamId(team.getId());
+        List<Submission> latestSubmissions = submissionRepository.findLatestPerBaseByTeamId(team.getId());
         List<Assignment> assignments = assignmentRepository.findByGameId(gameId);
 
         // Build lookup maps
         Map<UUID, CheckIn> checkInByBase = checkIns.stream()
                 .collect(Collectors.toMap(ci -> ci.getBase().getId(), ci -> ci));
-        Map<UUID, Submission> submissionByBase = submissions.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getBase().getId(),
-                        s -> s,
-                        (a, b) -> a.getSubmittedAt().isAfter(b.getSubmittedAt()) ? a : b
-                ));
+        Map<UUID, Submission> submissionByBase = latestSubmissions.stream()
+                .collect(Collectors.toMap(s -> s.getBase().getId(), s -> s));
 
         List<Assignment> sortedAssignments = assignments.stream()
                 .sorted(ASSIGNMENT_RECENCY_COMPARATOR)
@@ -213,13 +219,7 @@ public class PlayerService {
 
             if (sub != null) {
                 submissionStatus = sub.getStatus().name();
-                if (sub.getStatus() == SubmissionStatus.approved || sub.getStatus() == SubmissionStatus.correct) {
-                    status = "completed";
-                } else if (sub.getStatus() == SubmissionStatus.rejected) {
-                    status = "rejected";
-                } else {
-                    status = "submitted";
-                }
+                status = sub.getStatus().progressStatus();
             } else if (ci != null) {
                 status = "checked_in";
             } else {
@@ -371,6 +371,11 @@ public class PlayerService {
             throw new BadRequestException("Team has not checked in to this base");
         }
 
+        if (proximityProperties.isEnforcePresence() && base.getRequirePresenceToSubmit()
+                && !proximityIndex.isTeamAtBase(gameId, team.getId(), base.getId())) {
+            throw new BadRequestException("Team must be at the base to submit");
+        }
+
         Challenge assignedChallenge = resolveAssignedChallenge(base, team);
         if (assignedChallenge == null) {
             throw new BadRequestException("No challenge is assigned for this base");
@@ -414,6 +419,7 @@ public class PlayerService {
 
         // Delete the player record (cascading from FK will be handled by DB)
         playerRepository.delete(player);
+        webSocketAuthCache.invalidatePlayersAfterCommit(List.of(playerId));
     }
 
     @Transactional
@@ -441,13 +447,21 @@ public class PlayerService {
             location.setLng(lng);
         }
         teamLocationRepository.save(location);
+        Instant now = Instant.now();
+        locationHistoryService.record(team.getId(), lat, lng, now);
+
+        // Flag an arrival when the nearest base differs from the one the previous fix was near
+        UUID nearBaseId = proximityIndex.findNearest(gameId, lat, lng)
+                .map(BaseProximityIndex.NearbyBase::baseId)
+                .orElse(null);
+        UUID previousBaseId = proximityIndex.recordTeamFix(gameId, team.getId(), lat, lng, now)
+                .flatMap(fix -> proximityIndex.findNearest(gameId, fix.lat(), fix.lng()))
+                .map(BaseProximityIndex.NearbyBase::baseId)
+                .orElse(null);
 
-        eventBroadcaster.broadcastLocationUpdate(gameId, Map.of(
-                "teamId", team.getId(),
-                "lat", lat,
-                "lng", lng,
-                "updatedAt", Instant.now().toString()
-        ));
+        eventPublisher.publishEvent(new TeamLocationUpdatedEvent(gameId, new GameEventFrame.LocationData(
+                team.getId(), lat, lng, now.toString(), nearBaseId,
+                nearBaseId != null && !nearBaseId.equals(previousBaseId) ? nearBaseId : null)));
     }
 
     private CheckInResponse buildCheckInResponse(CheckIn checkIn, Base base, Team team) {
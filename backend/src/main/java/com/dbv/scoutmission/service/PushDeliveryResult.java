@@ -0,0 +1,18 @@
+package com.dbv.scoutmission.service;
+
+import java.util.List;
+
+/**
+ * Outcome of one push send to a list of tokens. Tokens that failed for a transient reason
+ * (provider unavailable, throttled, connection error) are returned for a later retry; tokens the
+ * provider rejected for good are only counted as failed.
+ */
+public record PushDeliveryResult(int delivered, int failed, List<String> retryableTokens) {
+
+    /** Nothing was sent, e.g. because the provider is disabled. */
+    public static final PushDeliveryResult NOT_SENT = new PushDeliveryResult(0, 0, List.of());
+
+    public static PushDeliveryResult retryAll(List<String> tokens) {
+        return new PushDeliveryResult(0, 0, List.copyOf(tokens));
+    }
+}
@@ -0,0 +1,131 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.entity.PushPlatform;
+import com.dbv.scoutmission.websocket.GameEventBroadcaster;
+import com.dbv.scoutmission.websocket.GameEventFrame;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends push notifications through the transactional outbox: {@link #dispatch} records one row
+ * per platform in the caller's transaction, and the {@link OutboxRelay} delivers it after commit.
+ * Tokens that fail for a transient reason stay in the row and are retried with the outbox backoff;
+ * once a platform's delivery is final its outcome is broadcast to the game's operators as a
+ * {@code push-status} frame.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PushDispatcher implements OutboxHandler<PushDispatcher.PushDelivery> {
+
+    static final String OUTBOX_TYPE = "push";
+
+    private final ApnsPushService apnsPushService;
+    private final FcmPushService fcmPushService;
+    private final GameEventBroadcaster eventBroadcaster;
+    private final OutboxService outboxService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Queues delivery of {@code message} to the given tokens. Must run inside the transaction of
+     * the change that triggers the push, which it commits or rolls back with.
+     *
+     * @param kind        what the push is about, echoed in the status frame (e.g. "notification")
+     * @param referenceId id of the notified entity, echoed in the status frame
+     */
+    public void dispatch(UUID gameId, String kind, UUID referenceId,
+                         Map<PushPlatform, List<String>> tokens, PushMessage message) {
+        tokens.forEach((platform, platformTokens) -> {
+            if (!platformTokens.isEmpty()) {
+                outboxService.enqueue(OUTBOX_TYPE, new PushDelivery(gameId, kind, referenceId, platform, message,
+                        List.copyOf(platformTokens), 0, 0));
+            }
+        });
+    }
+
+    @Override
+    public String type() {
+        return OUTBOX_TYPE;
+    }
+
+    @Override
+    public Class<PushDelivery> payloadType() {
+        return PushDelivery.class;
+    }
+
+    @Override
+    public PushDelivery handle(PushDelivery delivery, int attempt) {
+        PushDeliveryResult result;
+        try {
+            result = send(delivery.platform(), delivery.tokens(), delivery.message());
+        } catch (Exception ex) {
+            log.warn("{} push attempt {} for {} {} failed: {}", delivery.platform(), attempt,
+                    delivery.kind(), delivery.referenceId(), ex.getMessage());
+            result = PushDeliveryResult.retryAll(delivery.tokens());
+        }
+
+        PushDelivery remaining = new PushDelivery(delivery.gameId(), delivery.kind(), delivery.referenceId(),
+                delivery.platform(), delivery.message(), result.retryableTokens(),
+                delivery.delivered() + result.delivered(), delivery.failed() + result.failed());
+        if (!remaining.tokens().isEmpty()) {
+            counter(delivery.platform(), "retried").increment(remaining.tokens().size());
+            return remaining;
+        }
+        report(remaining, remaining.delivered(), remaining.failed(), attempt);
+        return null;
+    }
+
+    @Override
+    public void abandoned(PushDelivery delivery, int attempts) {
+        report(delivery, delivery.delivered(), delivery.failed() + delivery.tokens().size(), attempts);
+    }
+
+    private PushDeliveryResult send(PushPlatform platform, List<String> tokens, PushMessage message) {
+        return switch (platform) {
+            case ios -> apnsPushService.sendPush(tokens, message.title(), message.body(), message.data());
+            case android -> fcmPushService.sendPush(tokens, message.title(), message.body(), message.data());
+        };
+    }
+
+    private void report(PushDelivery delivery, int delivered, int failed, int attempts) {
+        String status = delivered + failed == 0 ? "skipped"
+                : failed == 0 ? "delivered"
+                : delivered == 0 ? "failed"
+                : "partial";
+        counter(delivery.platform(), "delivered").increment(delivered);
+        counter(delivery.platform(), "failed").increment(failed);
+        log.info("{} push for {} {}: {} ({} delivered, {} failed, {} attempts)", delivery.platform(), delivery.kind(),
+                delivery.referenceId(), status, delivered, failed, attempts);
+        try {
+            eventBroadcaster.broadcastPushStatus(delivery.gameId(), new GameEventFrame.PushStatusData(
+                    delivery.kind(), delivery.referenceId(), delivery.platform().name(), status,
+                    delivered, failed, attempts));
+        } catch (Exception ex) {
+            log.warn("Failed to broadcast push status for {} {}: {}", delivery.kind(), delivery.referenceId(),
+                    ex.getMessage());
+        }
+    }
+
+    private Counter counter(PushPlatform platform, String outcome) {
+        return Counter.builder("scoutmission.push.tokens")
+                .description("Push tokens by platform and delivery outcome")
+                .tag("platform", platform.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Outbox payload: the tokens of one platform still to deliver to, and the counts of earlier
+     * attempts so the final status covers the whole delivery.
+     */
+    public record PushDelivery(UUID gameId, String kind, UUID referenceId, PushPlatform platform,
+                               PushMessage message, List<String> tokens, int delivered, int failed) {
+    }
+}
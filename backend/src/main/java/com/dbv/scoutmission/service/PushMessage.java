@@ -0,0 +1,7 @@
+package com.dbv.scoutmission.service;
+
+import java.util.Map;
+
+/** Title, body and custom data of a push notification, identical for every recipient. */
+public record PushMessage(String title, String body, Map<String, String> data) {
+}
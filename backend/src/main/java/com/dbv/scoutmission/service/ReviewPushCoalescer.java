@@ -0,0 +1,121 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.PushProperties;
+import com.dbv.scoutmission.entity.PushPlatform;
+import com.dbv.scoutmission.entity.SubmissionStatus;
+import com.dbv.scoutmission.event.SubmissionReviewedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pushes submission review outcomes to the reviewed team's devices, so the apps learn about them
+ * without polling progress. Reviews of one team within {@code app.push.review-coalesce-window}
+ * of the first are sent as a single push; the push itself goes through the outbox.
+ * <p>
+ * Pending reviews are held in memory, so reviews still inside the window when the node stops are
+ * not pushed; the apps' progress polling covers them.
+ */
+@Slf4j
+@Component
+public class ReviewPushCoalescer {
+
+    static final String PUSH_KIND = "submission-review";
+
+    private final NotificationService notificationService;
+    private final PushDispatcher pushDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final PushProperties properties;
+    private final ConcurrentMap<UUID, PendingReviews> pending = new ConcurrentHashMap<>();
+
+    public ReviewPushCoalescer(NotificationService notificationService,
+                               PushDispatcher pushDispatcher,
+                               TransactionTemplate transactionTemplate,
+                               PushProperties properties) {
+        this.notificationService = notificationService;
+        this.pushDispatcher = pushDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSubmissionReviewed(SubmissionReviewedEvent event) {
+        pending.compute(event.teamId(), (teamId, reviews) -> {
+            PendingReviews next = reviews != null ? reviews : new PendingReviews(System.currentTimeMillis());
+            next.events.add(event);
+            return next;
+        });
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void flushDue() {
+        long cutoff = System.currentTimeMillis() - properties.getReviewCoalesceWindow().toMillis();
+        for (Map.Entry<UUID, PendingReviews> entry : pending.entrySet()) {
+            if (entry.getValue().firstAt <= cutoff) {
+                flush(entry.getKey());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(UUID teamId) {
+        PendingReviews reviews = pending.remove(teamId);
+        if (reviews == null) {
+            return;
+        }
+        // Appends happen inside compute(), so once removed the entry no longer changes
+        List<SubmissionReviewedEvent> events = reviews.events;
+        SubmissionReviewedEvent first = events.get(0);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<PushPlatform, List<String>> tokens = notificationService.resolvePushTokens(first.gameId(), teamId);
+                if (tokens.values().stream().allMatch(List::isEmpty)) {
+                    return;
+                }
+                pushDispatcher.dispatch(first.gameId(), PUSH_KIND, teamId, tokens, message(events));
+            });
+        } catch (Exception ex) {
+            log.warn("Failed to queue review push for team {} ({} reviews): {}", teamId, events.size(), ex.getMessage());
+        }
+    }
+
+    static PushMessage message(List<SubmissionReviewedEvent> events) {
+        SubmissionReviewedEvent first = events.get(0);
+        Map<String, String> data = Map.of(
+                "gameId", first.gameId().toString(),
+                "teamId", first.teamId().toString(),
+                "type", PUSH_KIND);
+        if (events.size() == 1) {
+            String outcome = first.status() == SubmissionStatus.approved ? "approved" : "rejected";
+            return new PushMessage(first.gameName(),
+                    "Your submission for " + first.challengeTitle() + " was " + outcome, data);
+        }
+        long approved = events.stream().filter(e -> e.status() == SubmissionStatus.approved).count();
+        return new PushMessage(first.gameName(), events.size() + " submissions were reviewed: "
+                + approved + " approved, " + (events.size() - approved) + " rejected", data);
+    }
+
+    private static final class PendingReviews {
+        private final long firstAt;
+        private final List<SubmissionReviewedEvent> events = new ArrayList<>();
+
+        private PendingReviews(long firstAt) {
+            this.firstAt = firstAt;
+        }
+    }
+}
@@ -4,13 +4,15 @@ import com.dbv.scoutmission.dto.request.CreateSubmissionRequest;
 import com.dbv.scoutmission.dto.request.ReviewSubmissionRequest;
 import com.dbv.scoutmission.dto.response.SubmissionResponse;
 import com.dbv.scoutmission.entity.*;
+import com.dbv.scoutmission.event.ActivityRecordedEvent;
+import com.dbv.scoutmission.event.SubmissionReviewedEvent;
 import com.dbv.scoutmission.exception.BadRequestException;
 import com.dbv.scoutmission.exception.ForbiddenException;
 import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.*;
 import com.dbv.scoutmission.security.SecurityUtils;
-import com.dbv.scoutmission.websocket.GameEventBroadcaster;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
@@ -32,7 +34,7 @@ public class SubmissionService {
     private final BaseRepository baseRepository;
     private final UserRepository userRepository;
     private final ActivityEventRepository activityEventRepository;
-    private final GameEventBroadcaster eventBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
     private final GameAccessService gameAccessService;
     private final FileStorageService fileStorageService;
     private final PlayerRepository playerRepository;
@@ -146,8 +148,9 @@ public class SubmissionService {
         if (event.getBase() != null) event.getBase().getId();
         if (event.getChallenge() != null) event.getChallenge().getId();
 
-        // Broadcast via WebSocket
-        eventBroadcaster.broadcastActivityEvent(gameId, event);
+        // Broadcast via WebSocket once the submission is committed
+        eventPublisher.publishEvent(new ActivityRecordedEvent(gameId, event, new ActivityRecordedEvent.ProgressCell(
+                team.getId(), base.getId(), submission.getStatus().progressStatus(), submission.getStatus().name())));
 
         return toResponse(submission);
     }
@@ -211,7 +214,17 @@ public class SubmissionService {
         if (event.getBase() != null) event.getBase().getId();
         if (event.getChallenge() != null) event.getChallenge().getId();
 
-        eventBroadcaster.broadcastActivityEvent(gameId, event);
+        // The progress cell reflects the team's latest submission for the base; reviewing an
+        // older one that has since been superseded leaves the cell unchanged.
+        ActivityRecordedEvent.ProgressCell cell = null;
+        if (!submissionRepository.existsByTeamIdAndBaseIdAndSubmittedAtAfter(
+                submission.getTeam().getId(), submission.getBase().getId(), submission.getSubmittedAt())) {
+            cell = new ActivityRecordedEvent.ProgressCell(submission.getTeam().getId(), submission.getBase().getId(),
+                    newStatus.progressStatus(), newStatus.name());
+        }
+        eventPublisher.publishEvent(new ActivityRecordedEvent(gameId, event, cell));
+        eventPublisher.publishEvent(new SubmissionReviewedEvent(gameId, submission.getTeam().getGame().getName(),
+                submission.getTeam().getId(), submission.getId(), submission.getChallenge().getTitle(), newStatus));
 
         return toResponse(submission);
     }
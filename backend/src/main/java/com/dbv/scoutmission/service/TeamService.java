@@ -10,13 +10,13 @@ import com.dbv.scoutmission.exception.BadRequestException;
 import com.dbv.scoutmission.exception.ResourceNotFoundException;
 import com.dbv.scoutmission.repository.PlayerRepository;
 import com.dbv.scoutmission.repository.TeamRepository;
+import com.dbv.scoutmission.websocket.WebSocketAuthCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,11 +27,13 @@ public class TeamService {
         "#3b82f6", "#ef4444", "#f59e0b", "#8b5cf6",
         "#10b981", "#ec4899", "#f97316", "#06b6d4"
     };
-    private static final int MAX_JOIN_CODE_ATTEMPTS = 20;
 
     private final TeamRepository teamRepository;
     private final PlayerRepository playerRepository;
     private final GameAccessService gameAccessService;
+    private final WebSocketAuthCache webSocketAuthCache;
+    private final JoinCodeGenerator joinCodeGenerator;
+    private final BaseProximityIndex proximityIndex;
 
     @Transactional(readOnly = true)
     public List<TeamResponse> getTeamsByGame(UUID gameId) {
@@ -47,7 +49,7 @@ public class TeamService {
 
         long teamCount = teamRepository.countByGameId(gameId);
         String color = TEAM_COLORS[(int) (teamCount % TEAM_COLORS.length)];
-        String joinCode = generateUniqueJoinCode();
+        String joinCode = joinCodeGenerator.generate();
 
         Team team = Team.builder()
                 .game(game)
@@ -83,7 +85,9 @@ public class TeamService {
         if (!team.getGame().getId().equals(gameId)) {
             throw new BadRequestException("Team does not belong to this game");
         }
+        webSocketAuthCache.invalidatePlayersAfterCommit(playerRepository.findIdsByTeamId(teamId));
         teamRepository.delete(team);
+        proximityIndex.forgetTeamFixAfterCommit(teamId);
     }
 
     @Transactional(readOnly = true)
@@ -105,25 +109,6 @@ public class TeamService {
                 .collect(Collectors.toList());
     }
 
-    private String generateUniqueJoinCode() {
-        for (int attempt = 0; attempt < MAX_JOIN_CODE_ATTEMPTS; attempt++) {
-            String code = generateJoinCode();
-            if (teamRepository.findByJoinCode(code).isEmpty()) {
-                return code;
-            }
-        }
-        throw new IllegalStateException("Unable to generate unique team join code");
-    }
-
-    private String generateJoinCode() {
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder sb = new StringBuilder(7);
-        for (int i = 0; i < 7; i++) {
-            sb.append(chars.charAt(ThreadLocalRandom.current().nextInt(chars.length())));
-        }
-        return sb.toString();
-    }
-
     private TeamResponse toResponse(Team team) {
         return TeamResponse.builder()
                 .id(team.getId())
@@ -0,0 +1,37 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketConfig;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * Marks sessions that can receive binary WebSocket messages: the native endpoint, and on the
+ * SockJS endpoint only the raw WebSocket path ({@code /ws/websocket}); SockJS transports frame
+ * everything as text.
+ */
+@Component
+public class BinaryTransportHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String BINARY_FRAMES_ATTRIBUTE = "binaryFrames";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String path = request.getURI().getPath();
+        if (path.endsWith(WebSocketConfig.SOCKJS_ENDPOINT + "/websocket")
+                || path.endsWith(WebSocketConfig.NATIVE_ENDPOINT)) {
+            attributes.put(BINARY_FRAMES_ATTRIBUTE, true);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
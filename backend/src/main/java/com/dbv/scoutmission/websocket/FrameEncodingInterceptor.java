@@ -0,0 +1,91 @@
+package com.dbv.scoutmission.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates the optional CBOR frame encoding. A client opts in by sending
+ * {@code frame-encoding: cbor} on CONNECT; game frames to that session are then sent as binary
+ * WebSocket messages carrying CBOR, with {@code frame-encoding: cbor} on each MESSAGE.
+ * <p>
+ * Registered on both client channels: inbound to record the choice, outbound to swap the
+ * payload. Only sessions on a binary-capable transport can opt in (SockJS is text-only).
+ */
+@Component
+@RequiredArgsConstructor
+public class FrameEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String FRAME_ENCODING_HEADER = "frame-encoding";
+    public static final String CBOR = "cbor";
+    /** Non-native message header carrying the pre-encoded CBOR body next to the JSON payload. */
+    public static final String CBOR_PAYLOAD_HEADER = "scoutmissionCborPayload";
+
+    private final GameFrameCodec frameCodec;
+
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (accessor instanceof StompHeaderAccessor stomp && StompCommand.CONNECT.equals(stomp.getCommand())) {
+            recordChoice(stomp);
+            return message;
+        }
+        if (accessor.getMessageType() == SimpMessageType.MESSAGE && cborSessions.contains(accessor.getSessionId())
+                && message.getPayload() instanceof byte[] json) {
+            return toCbor(message, json);
+        }
+        return message;
+    }
+
+    /** Whether any connected session currently expects CBOR frames. */
+    public boolean hasCborSessions() {
+        return !cborSessions.isEmpty();
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        cborSessions.remove(event.getSessionId());
+    }
+
+    private void recordChoice(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean binaryCapable = attributes != null
+                && Boolean.TRUE.equals(attributes.get(BinaryTransportHandshakeInterceptor.BINARY_FRAMES_ATTRIBUTE));
+        if (binaryCapable && CBOR.equalsIgnoreCase(accessor.getFirstNativeHeader(FRAME_ENCODING_HEADER))) {
+            cborSessions.add(accessor.getSessionId());
+        }
+    }
+
+    private Message<?> toCbor(Message<?> message, byte[] json) {
+        byte[] cbor = message.getHeaders().get(CBOR_PAYLOAD_HEADER, byte[].class);
+        if (cbor == null) {
+            cbor = frameCodec.jsonToCbor(json);
+        }
+        SimpMessageHeaderAccessor copy = SimpMessageHeaderAccessor.wrap(message);
+        copy.removeHeader(CBOR_PAYLOAD_HEADER);
+        // octet-stream makes the STOMP handler send a binary WebSocket message
+        copy.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        copy.setNativeHeader(FRAME_ENCODING_HEADER, CBOR);
+        return MessageBuilder.createMessage(cbor, copy.getMessageHeaders());
+    }
+}
@@ -2,14 +2,25 @@ package com.dbv.scoutmission.websocket;
 
 import com.dbv.scoutmission.dto.response.NotificationResponse;
 import com.dbv.scoutmission.entity.ActivityEvent;
+import com.dbv.scoutmission.repository.TeamRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
@@ -17,54 +28,190 @@ import java.util.UUID;
 public class GameEventBroadcaster {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final GameEventReplayBuffer replayBuffer;
+    private final GameFanOutMetrics fanOutMetrics;
+    private final GameFrameCodec frameCodec;
+    private final FrameEncodingInterceptor frameEncodingInterceptor;
+    private final TeamRepository teamRepository;
 
-    public void broadcastActivityEvent(UUID gameId, ActivityEvent event) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("type", "activity");
+    /**
+     * Per-topic frame counters. Every frame on a game or team topic carries the topic's next
+     * value as "seq", so a client that sees a jump knows it missed frames and should reload a
+     * full snapshot. Counters live in memory and restart from 1 when the backend restarts. With
+     * the broker relay several nodes publish to the same topic, so frames also carry "node" and
+     * clients track seq per node.
+     * <p>
+     * A counter is dropped once its topic's replay history has been evicted as idle, or when the
+     * game is deleted. A topic that becomes active again starts above every dropped counter, so
+     * a client still holding an old seq sees a gap and reloads instead of ignoring new frames.
+     */
+    private final ConcurrentMap<String, TopicSequence> sequences = new ConcurrentHashMap<>();
+    private final AtomicLong retiredSequenceFloor = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
 
-        // Use HashMap instead of Map.of() to allow null values
-        Map<String, Object> data = new HashMap<>();
-        data.put("id", event.getId());
-        data.put("gameId", event.getGame().getId());
-        data.put("type", event.getType().name());
-        data.put("teamId", event.getTeam().getId());
-        data.put("baseId", event.getBase() != null ? event.getBase().getId() : null);
-        data.put("challengeId", event.getChallenge() != null ? event.getChallenge().getId() : null);
-        data.put("message", event.getMessage());
-        data.put("timestamp", event.getTimestamp().toString());
+    public void broadcastActivityEvent(UUID gameId, ActivityEvent event) {
+        GameEventFrame.ActivityData data = new GameEventFrame.ActivityData(
+                event.getId(),
+                event.getGame().getId(),
+                event.getType().name(),
+                event.getTeam().getId(),
+                event.getBase() != null ? event.getBase().getId() : null,
+                event.getChallenge() != null ? event.getChallenge().getId() : null,
+                event.getMessage(),
+                event.getTimestamp().toString());
 
-        payload.put("data", data);
+        log.debug("Broadcasting activity event to game {}", gameId);
+        send(gameId, "activity", data, gameTopic(gameId), teamTopic(gameId, data.teamId()));
+    }
 
-        String destination = "/topic/games/" + gameId;
-        log.debug("Broadcasting activity event to {}", destination);
-        messagingTemplate.convertAndSend(destination, payload);
+    /**
+     * Publishes the new state of a single team/base cell of the progress grid, so operators
+     * can patch their grid instead of re-fetching the whole progress snapshot.
+     *
+     * @param status           progress status (not_visited, checked_in, submitted, completed, rejected)
+     * @param submissionStatus status of the latest submission, or null if there is none
+     */
+    public void broadcastProgressCell(UUID gameId, UUID teamId, UUID baseId, String status, String submissionStatus) {
+        log.debug("Broadcasting progress cell {}/{} -> {} to game {}", teamId, baseId, status, gameId);
+        send(gameId, "progress-cell", new GameEventFrame.ProgressCellData(teamId, baseId, status, submissionStatus),
+                gameTopic(gameId), teamTopic(gameId, teamId));
     }
 
+    /**
+     * Sends a notification to operators and to the targeted team, or to every team of the game
+     * when it has no target team.
+     */
     public void broadcastNotification(UUID gameId, NotificationResponse notification) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("type", "notification");
-        payload.put("data", notification);
-
-        String destination = "/topic/games/" + gameId;
-        log.debug("Broadcasting notification to {}", destination);
-        messagingTemplate.convertAndSend(destination, payload);
+        log.debug("Broadcasting notification to game {}", gameId);
+        List<UUID> teamIds = notification.getTargetTeamId() != null
+                ? List.of(notification.getTargetTeamId())
+                : teamRepository.findIdsByGameId(gameId);
+        String[] destinations = new String[teamIds.size() + 1];
+        destinations[0] = gameTopic(gameId);
+        for (int i = 0; i < teamIds.size(); i++) {
+            destinations[i + 1] = teamTopic(gameId, teamIds.get(i));
+        }
+        send(gameId, "notification", notification, destinations);
     }
 
     public void broadcastLeaderboardUpdate(UUID gameId, Object leaderboard) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("type", "leaderboard");
-        payload.put("data", leaderboard);
+        send(gameId, "leaderboard", leaderboard, gameTopic(gameId));
+    }
+
+    /** Push delivery outcomes are reported to operators only. */
+    public void broadcastPushStatus(UUID gameId, GameEventFrame.PushStatusData status) {
+        send(gameId, "push-status", status, gameTopic(gameId));
+    }
+
+    /** Locations are only of interest to operators, so they stay on the game topic. */
+    public void broadcastLocationUpdate(UUID gameId, GameEventFrame.LocationData location) {
+        send(gameId, "location", location, gameTopic(gameId));
+    }
+
+    public static String gameTopic(UUID gameId) {
+        return "/topic/games/" + gameId;
+    }
+
+    public static String teamTopic(UUID gameId, UUID teamId) {
+        return "/topic/games/" + gameId + "/teams/" + teamId;
+    }
+
+    /** Forgets the sequence counters and replay history of a deleted game once the deletion commits. */
+    public void forgetGameAfterCommit(UUID gameId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forgetGame(gameId);
+                }
+            });
+        } else {
+            forgetGame(gameId);
+        }
+    }
+
+    /** Drops the counters of topics whose replay history was evicted as idle. */
+    @Scheduled(fixedRate = 600000)
+    public void evictIdleSequences() {
+        sequences.forEach((destination, sequence) -> {
+            if (!replayBuffer.hasHistory(destination)) {
+                retire(destination, sequence);
+            }
+        });
+    }
+
+    void forgetGame(UUID gameId) {
+        String prefix = gameTopic(gameId);
+        sequences.forEach((destination, sequence) -> {
+            if (destination.startsWith(prefix)) {
+                retire(destination, sequence);
+            }
+        });
+        replayBuffer.forgetGame(gameId);
+    }
+
+    /**
+     * Removes a counter while holding its lock, after raising the floor new counters start from,
+     * so a send that already looked the counter up either finishes first or retries on a new one.
+     */
+    private void retire(String destination, TopicSequence sequence) {
+        synchronized (sequence) {
+            if (sequence.retired) {
+                return;
+            }
+            sequence.retired = true;
+            retiredSequenceFloor.accumulateAndGet(sequence.value, Math::max);
+            sequences.remove(destination, sequence);
+        }
+    }
+
+    private void send(UUID gameId, String type, Object data, String... destinations) {
+        boolean includeCbor = frameEncodingInterceptor.hasCborSessions();
+        for (String destination : destinations) {
+            while (!sendOnTopic(destination, type, data, includeCbor)) {
+                // The counter was retired between lookup and lock; pick up its replacement
+            }
+            fanOutMetrics.recordBroadcast(gameId, destination);
+        }
+    }
+
+    private boolean sendOnTopic(String destination, String type, Object data, boolean includeCbor) {
+        TopicSequence sequence = sequences.computeIfAbsent(destination,
+                d -> new TopicSequence(retiredSequenceFloor.get()));
+        // Hand frames to the broker in sequence order so clients don't report false gaps
+        synchronized (sequence) {
+            if (sequence.retired) {
+                return false;
+            }
+            GameEventFrame frame = new GameEventFrame(type, ++sequence.value, nodeId, data);
+            GameFrameCodec.EncodedFrame encoded = frameCodec.encode(frame, includeCbor);
+            replayBuffer.record(destination, encoded);
+            messagingTemplate.send(destination, toMessage(encoded));
+            return true;
+        }
+    }
 
-        String destination = "/topic/games/" + gameId;
-        messagingTemplate.convertAndSend(destination, payload);
+    /**
+     * Builds a broker message carrying the already-encoded JSON body, so the message converter
+     * is not run again, and the CBOR body (if any) for sessions that negotiated it.
+     */
+    static Message<byte[]> toMessage(GameFrameCodec.EncodedFrame encoded) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (encoded.cbor() != null) {
+            headers.setHeader(FrameEncodingInterceptor.CBOR_PAYLOAD_HEADER, encoded.cbor());
+        }
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(encoded.json(), headers.getMessageHeaders());
     }
 
-    public void broadcastLocationUpdate(UUID gameId, Object locationData) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("type", "location");
-        payload.put("data", locationData);
+    /** Guarded by its own monitor. */
+    private static final class TopicSequence {
+        private long value;
+        private boolean retired;
 
-        String destination = "/topic/games/" + gameId;
-        messagingTemplate.convertAndSend(destination, payload);
+        TopicSequence(long start) {
+            this.value = start;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package com.dbv.scoutmission.websocket;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.UUID;
+
+/**
+ * Envelope of every frame sent on a game topic. {@code data} is one of the typed records below,
+ * a response DTO, or (for leaderboards) whatever the caller passes.
+ */
+@JsonPropertyOrder({"type", "seq", "node", "data"})
+public record GameEventFrame(String type, long seq, String node, Object data) {
+
+    public record ActivityData(UUID id, UUID gameId, String type, UUID teamId, UUID baseId,
+                               UUID challengeId, String message, String timestamp) {
+    }
+
+    public record ProgressCellData(UUID teamId, UUID baseId, String status, String submissionStatus) {
+    }
+
+    public record LocationData(UUID teamId, Double lat, Double lng, String updatedAt,
+                               UUID nearBaseId, UUID arrivedAtBaseId) {
+    }
+
+    /**
+     * Final outcome of push delivery for one platform, e.g. for an operator notification.
+     *
+     * @param status delivered, partial, failed or skipped (provider disabled)
+     */
+    public record PushStatusData(String kind, UUID referenceId, String platform, String status,
+                                 int delivered, int failed, int attempts) {
+    }
+}
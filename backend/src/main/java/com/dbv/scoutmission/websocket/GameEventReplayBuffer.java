@@ -0,0 +1,102 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded history of the frames broadcast on each game and team topic, so a subscriber that
+ * reconnects can be sent what it missed instead of re-polling every monitoring endpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameEventReplayBuffer {
+
+    private final WebSocketProperties webSocketProperties;
+
+    /** Keyed by topic destination; each topic numbers its frames independently. */
+    private final ConcurrentMap<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public void record(String destination, GameFrameCodec.EncodedFrame frame) {
+        rings.computeIfAbsent(destination, d -> new Ring(webSocketProperties.getReplay().getBufferSize()))
+                .add(frame);
+    }
+
+    /**
+     * Frames with a sequence number greater than {@code lastSeq}, oldest first. If the client is
+     * further behind than the buffer reaches, the first returned frame will not be
+     * {@code lastSeq + 1} and the client should fall back to a full snapshot.
+     */
+    public List<GameFrameCodec.EncodedFrame> framesAfter(String destination, long lastSeq) {
+        Ring ring = rings.get(destination);
+        return ring != null ? ring.after(lastSeq) : List.of();
+    }
+
+    /** Whether frames for the topic are still buffered, i.e. it has not been evicted as idle. */
+    public boolean hasHistory(String destination) {
+        return rings.containsKey(destination);
+    }
+
+    /** Drops the history of a game's topic and all of its team topics. */
+    public void forgetGame(UUID gameId) {
+        String prefix = GameEventBroadcaster.gameTopic(gameId);
+        rings.keySet().removeIf(destination -> destination.startsWith(prefix));
+    }
+
+    @Scheduled(fixedRate = 600000)
+    public void evictIdle() {
+        Instant cutoff = Instant.now().minus(webSocketProperties.getReplay().getIdleTtl());
+        rings.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().lastWrite().isBefore(cutoff);
+            if (idle) {
+                log.debug("Dropping replay buffer for idle topic {}", entry.getKey());
+            }
+            return idle;
+        });
+    }
+
+    private static final class Ring {
+        private final int capacity;
+        private final Deque<GameFrameCodec.EncodedFrame> frames;
+        private volatile Instant lastWrite = Instant.now();
+
+        Ring(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.frames = new ArrayDeque<>(this.capacity);
+        }
+
+        synchronized void add(GameFrameCodec.EncodedFrame frame) {
+            if (frames.size() == capacity) {
+                frames.removeFirst();
+            }
+            frames.addLast(frame);
+            lastWrite = Instant.now();
+        }
+
+        synchronized List<GameFrameCodec.EncodedFrame> after(long lastSeq) {
+            List<GameFrameCodec.EncodedFrame> result = new ArrayList<>();
+            for (GameFrameCodec.EncodedFrame frame : frames) {
+                if (frame.seq() > lastSeq) {
+                    result.add(frame);
+                }
+            }
+            return result;
+        }
+
+        Instant lastWrite() {
+            return lastWrite;
+        }
+    }
+}
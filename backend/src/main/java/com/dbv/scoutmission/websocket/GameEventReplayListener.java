@@ -0,0 +1,81 @@
+package com.dbv.scoutmission.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+
+/**
+ * Replays buffered frames to a single session when it subscribes to a game or team topic with a
+ * {@code last-seq} header. The SUBSCRIBE has already passed {@link WebSocketAuthChannelInterceptor}
+ * when this event fires, so only authorized subscribers get replays.
+ * <p>
+ * Replayed frames can interleave with live ones; clients should ignore frames whose seq they
+ * have already seen.
+ */
+@Slf4j
+@Component
+public class GameEventReplayListener {
+
+    static final String LAST_SEQ_HEADER = "last-seq";
+    private static final String GAME_TOPIC_PREFIX = "/topic/games/";
+
+    private final GameEventReplayBuffer replayBuffer;
+    private final MessageChannel clientOutboundChannel;
+
+    public GameEventReplayListener(GameEventReplayBuffer replayBuffer,
+                                   @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.replayBuffer = replayBuffer;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        String lastSeqHeader = accessor.getFirstNativeHeader(LAST_SEQ_HEADER);
+        if (!StringUtils.hasText(destination) || !destination.startsWith(GAME_TOPIC_PREFIX)
+                || !StringUtils.hasText(lastSeqHeader)) {
+            return;
+        }
+
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(lastSeqHeader.trim());
+        } catch (NumberFormatException ex) {
+            log.debug("Ignoring replay request for {} with last-seq '{}'", destination, lastSeqHeader);
+            return;
+        }
+
+        List<GameFrameCodec.EncodedFrame> frames = replayBuffer.framesAfter(destination, lastSeq);
+        if (frames.isEmpty()) {
+            return;
+        }
+
+        log.debug("Replaying {} frames after seq {} to session {}", frames.size(), lastSeq, accessor.getSessionId());
+        for (GameFrameCodec.EncodedFrame frame : frames) {
+            // Sent straight to the client outbound channel, bypassing the broker, so frames reach
+            // only the subscribing session; outbound interceptors still pick the encoding.
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(accessor.getSessionId());
+            headers.setSubscriptionId(accessor.getSubscriptionId());
+            headers.setDestination(destination);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            if (frame.cbor() != null) {
+                headers.setHeader(FrameEncodingInterceptor.CBOR_PAYLOAD_HEADER, frame.cbor());
+            }
+            headers.setLeaveMutable(true);
+            clientOutboundChannel.send(MessageBuilder.createMessage(frame.json(), headers.getMessageHeaders()));
+        }
+    }
+}
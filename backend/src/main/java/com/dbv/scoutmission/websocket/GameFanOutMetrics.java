@@ -0,0 +1,142 @@
+package com.dbv.scoutmission.websocket;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks game and team topic subscriptions and publishes per-game subscriber gauges and a
+ * fan-out summary (subscribers reached per broadcast frame). A game's meters are removed when
+ * its last subscriber leaves so finished games do not accumulate meters.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameFanOutMetrics {
+
+    private static final String GAME_TOPIC_PREFIX = "/topic/games/";
+
+    private final MeterRegistry meterRegistry;
+
+    /** sessionId -> subscriptionId -> destination */
+    private final ConcurrentMap<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, GameMeters> games = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (extractGameId(destination) == null || accessor.getSessionId() == null
+                || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String previous = subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), destination);
+        if (previous == null) {
+            adjust(destination, 1);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> sessionSubscriptions = accessor.getSessionId() != null
+                ? subscriptions.get(accessor.getSessionId()) : null;
+        if (sessionSubscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = sessionSubscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            adjust(destination, -1);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.values().forEach(destination -> adjust(destination, -1));
+        }
+    }
+
+    /**
+     * Records one frame broadcast to a game or team topic, reaching its current subscribers.
+     */
+    public void recordBroadcast(UUID gameId, String destination) {
+        GameMeters meters = games.get(gameId);
+        if (meters != null) {
+            AtomicInteger subscribers = meters.byDestination.get(destination);
+            meters.fanOut.record(subscribers != null ? subscribers.get() : 0);
+        }
+    }
+
+    /** Subscriptions across the game topic and all of its team topics. */
+    public int subscriberCount(UUID gameId) {
+        GameMeters meters = games.get(gameId);
+        return meters != null ? meters.total.get() : 0;
+    }
+
+    private void adjust(String destination, int delta) {
+        UUID gameId = extractGameId(destination);
+        games.compute(gameId, (id, meters) -> {
+            if (meters == null) {
+                if (delta <= 0) {
+                    return null;
+                }
+                meters = new GameMeters(id);
+            }
+            meters.byDestination.computeIfAbsent(destination, d -> new AtomicInteger()).addAndGet(delta);
+            meters.byDestination.computeIfPresent(destination, (d, count) -> count.get() <= 0 ? null : count);
+            if (meters.total.addAndGet(delta) <= 0) {
+                meterRegistry.remove(meters.gauge);
+                meterRegistry.remove(meters.fanOut);
+                return null;
+            }
+            return meters;
+        });
+    }
+
+    static UUID extractGameId(String destination) {
+        if (destination == null || !destination.startsWith(GAME_TOPIC_PREFIX)) {
+            return null;
+        }
+        String remainder = destination.substring(GAME_TOPIC_PREFIX.length());
+        int slash = remainder.indexOf('/');
+        try {
+            return UUID.fromString(slash >= 0 ? remainder.substring(0, slash) : remainder);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private final class GameMeters {
+        private final AtomicInteger total = new AtomicInteger();
+        private final ConcurrentMap<String, AtomicInteger> byDestination = new ConcurrentHashMap<>();
+        private final Gauge gauge;
+        private final DistributionSummary fanOut;
+
+        private GameMeters(UUID gameId) {
+            String tag = gameId.toString();
+            this.gauge = Gauge.builder("scoutmission.websocket.subscribers", total, AtomicInteger::get)
+                    .description("Subscriptions to the game's topics")
+                    .tag("gameId", tag)
+                    .register(meterRegistry);
+            this.fanOut = DistributionSummary.builder("scoutmission.websocket.fanout")
+                    .description("Subscribers reached per frame broadcast to one of the game's topics")
+                    .tag("gameId", tag)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.dbv.scoutmission.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Serializes game frames once per broadcast. Every subscriber of a topic shares the same
+ * encoded bytes; the CBOR form is only produced while some connected session asked for it.
+ */
+@Component
+public class GameFrameCodec {
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+
+    public GameFrameCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        // Same modules and date settings as the JSON mapper, binary output
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    public EncodedFrame encode(GameEventFrame frame, boolean includeCbor) {
+        try {
+            // writeValueAsBytes writes through Jackson's recycled buffers, so the only
+            // per-frame allocation is the final array shared by all subscribers
+            byte[] json = jsonMapper.writeValueAsBytes(frame);
+            byte[] cbor = includeCbor ? cborMapper.writeValueAsBytes(frame) : null;
+            return new EncodedFrame(frame.seq(), json, cbor);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + frame.type() + " frame", ex);
+        }
+    }
+
+    /**
+     * Re-encodes a JSON frame as CBOR, for frames that arrive without a CBOR form (e.g. through
+     * the broker relay, which only forwards the JSON body).
+     */
+    public byte[] jsonToCbor(byte[] json) {
+        try {
+            return cborMapper.writeValueAsBytes(jsonMapper.readTree(json));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public record EncodedFrame(long seq, byte[] json, byte[] cbor) {
+    }
+}
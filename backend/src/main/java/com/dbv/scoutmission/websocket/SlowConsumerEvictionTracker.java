@@ -0,0 +1,46 @@
+package com.dbv.scoutmission.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * Counts sessions closed because they exceeded the outbound send time or buffer limits.
+ * Spring closes those sessions with {@link CloseStatus#SESSION_NOT_RELIABLE}.
+ */
+@Slf4j
+@Component
+public class SlowConsumerEvictionTracker implements WebSocketHandlerDecoratorFactory {
+
+    private final Counter evictions;
+
+    public SlowConsumerEvictionTracker(MeterRegistry meterRegistry) {
+        this.evictions = Counter.builder("scoutmission.websocket.slow_consumer_evictions")
+                .description("WebSocket sessions closed for not keeping up with outbound frames")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    evictions.increment();
+                    log.info("Evicted slow WebSocket session {}", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public double evictionCount() {
+        return evictions.count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of WebSocket authorization lookups, so a reconnect storm does not turn into one
+ * game/operator query per SUBSCRIBE and one player lookup per CONNECT.
+ * <p>
+ * Services that change operators or delete players invalidate the affected entries once their
+ * transaction commits; the TTL only bounds staleness for changes made outside those paths.
+ * Invalidation is local to this node, so with the broker relay (several nodes) the shorter
+ * {@code relay-ttl} applies and bounds how long other nodes keep a revoked decision.
+ */
+@Component
+public class WebSocketAuthCache {
+
+    private final Cache<GameAccessKey, Boolean> gameAccess;
+    private final Cache<UUID, Boolean> playerExists;
+
+    public WebSocketAuthCache(WebSocketProperties webSocketProperties) {
+        WebSocketProperties.AuthCache settings = webSocketProperties.getAuthCache();
+        Duration ttl = webSocketProperties.getRelay().isEnabled() ? settings.getRelayTtl() : settings.getTtl();
+        this.gameAccess = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(ttl)
+                .build();
+        this.playerExists = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean canUserAccessGame(UUID userId, UUID gameId, Supplier<Boolean> loader) {
+        return gameAccess.get(new GameAccessKey(userId, gameId), key -> loader.get());
+    }
+
+    public boolean playerExists(UUID playerId, Supplier<Boolean> loader) {
+        return playerExists.get(playerId, key -> loader.get());
+    }
+
+    public void invalidateUserAccessAfterCommit(UUID userId, UUID gameId) {
+        afterCommit(() -> gameAccess.invalidate(new GameAccessKey(userId, gameId)));
+    }
+
+    public void invalidateGameAfterCommit(UUID gameId) {
+        afterCommit(() -> gameAccess.asMap().keySet().removeIf(key -> key.gameId().equals(gameId)));
+    }
+
+    public void invalidatePlayersAfterCommit(Collection<UUID> playerIds) {
+        List<UUID> ids = List.copyOf(playerIds);
+        afterCommit(() -> playerExists.invalidateAll(ids));
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private record GameAccessKey(UUID userId, UUID gameId) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.dbv.scoutmission.websocket;
 
-import com.dbv.scoutmission.entity.Game;
 import com.dbv.scoutmission.entity.User;
 import com.dbv.scoutmission.entity.UserRole;
 import com.dbv.scoutmission.repository.GameRepository;
@@ -30,12 +29,21 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
+    /** Everything the broker handles; must match the prefix the broker is enabled with. */
+    private static final String BROKER_PREFIX = "/topic";
     private static final String GAME_TOPIC_PREFIX = "/topic/games/";
+    private static final String TEAMS_SEGMENT = "teams";
+    /**
+     * Ant patterns for the simple broker's subscription registry, wildcards for ActiveMQ and
+     * RabbitMQ behind the relay. A subscription must name exactly one topic.
+     */
+    private static final String PATTERN_CHARACTERS = "*?{}>#";
 
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
     private final PlayerRepository playerRepository;
     private final GameRepository gameRepository;
+    private final WebSocketAuthCache authCache;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -81,7 +89,7 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
     private void authenticatePlayer(String token, StompHeaderAccessor accessor) {
         UUID playerId = tokenProvider.getUserIdFromToken(token);
-        if (!playerRepository.existsById(playerId)) {
+        if (!authCache.playerExists(playerId, () -> playerRepository.existsById(playerId))) {
             throw new AccessDeniedException("WebSocket player not found");
         }
 
@@ -91,13 +99,20 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
             throw new AccessDeniedException("Player token missing game scope");
         }
 
+        String teamIdClaim = claims.get("teamId", String.class);
+        if (!StringUtils.hasText(teamIdClaim)) {
+            throw new AccessDeniedException("Player token missing team scope");
+        }
+
         UUID gameId;
+        UUID teamId;
         try {
             gameId = UUID.fromString(gameIdClaim);
+            teamId = UUID.fromString(teamIdClaim);
         } catch (IllegalArgumentException ex) {
-            throw new AccessDeniedException("Invalid player game scope in token");
+            throw new AccessDeniedException("Invalid player scope in token");
         }
-        WebSocketPlayerPrincipal principal = new WebSocketPlayerPrincipal(playerId, gameId);
+        WebSocketPlayerPrincipal principal = new WebSocketPlayerPrincipal(playerId, gameId, teamId);
         var authorities = List.of(new SimpleGrantedAuthority("ROLE_PLAYER"));
         UsernamePasswordAuthenticationToken authentication =
                 new UsernamePasswordAuthenticationToken(principal, null, authorities);
@@ -106,12 +121,19 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
     private void authorizeSubscribe(StompHeaderAccessor accessor) {
         String destination = accessor.getDestination();
-        if (!StringUtils.hasText(destination) || !destination.startsWith(GAME_TOPIC_PREFIX)) {
+        if (!StringUtils.hasText(destination)) {
+            throw new AccessDeniedException("Subscription destination is required");
+        }
+        if (containsPattern(destination)) {
+            throw new AccessDeniedException("Subscription destination cannot contain patterns");
+        }
+        if (!destination.startsWith(BROKER_PREFIX)) {
             return;
         }
 
-        UUID gameId = extractGameId(destination)
+        GameTopic topic = parseGameTopic(destination)
                 .orElseThrow(() -> new AccessDeniedException("Invalid game topic destination"));
+        UUID gameId = topic.gameId();
 
         if (accessor.getUser() == null) {
             throw new AccessDeniedException("WebSocket user is not authenticated");
@@ -131,6 +153,10 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
             if (!playerPrincipal.gameId().equals(gameId)) {
                 throw new AccessDeniedException("Player cannot subscribe to another game topic");
             }
+            // Players only receive their own team's frames; the game topic is for operators
+            if (!playerPrincipal.teamId().equals(topic.teamId())) {
+                throw new AccessDeniedException("Player can only subscribe to their own team topic");
+            }
             return;
         }
 
@@ -142,30 +168,51 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
             return;
         }
 
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new AccessDeniedException("Game not found"));
         UUID userId = principal.userId();
-
-        boolean isCreator = game.getCreatedBy() != null && game.getCreatedBy().getId().equals(userId);
-        boolean isOperator = game.getOperators().stream()
-                .anyMatch(operator -> operator.getId().equals(userId));
-        if (!isCreator && !isOperator) {
+        boolean allowed = authCache.canUserAccessGame(userId, gameId,
+                () -> gameRepository.existsByIdAndCreatorOrOperator(gameId, userId));
+        if (!allowed) {
             throw new AccessDeniedException("User cannot subscribe to this game topic");
         }
     }
 
-    private Optional<UUID> extractGameId(String destination) {
-        String raw = destination.substring(GAME_TOPIC_PREFIX.length());
-        if (!StringUtils.hasText(raw)) {
-            return Optional.empty();
+    private static boolean containsPattern(String destination) {
+        for (int i = 0; i < destination.length(); i++) {
+            if (PATTERN_CHARACTERS.indexOf(destination.charAt(i)) >= 0) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        String gameIdSegment = raw.split("/")[0];
+    /**
+     * Parses a destination that is exactly a game topic or a team topic of a game, as built by
+     * {@link GameEventBroadcaster}. Anything else under the broker prefix is rejected.
+     */
+    static Optional<GameTopic> parseGameTopic(String destination) {
+        if (!destination.startsWith(GAME_TOPIC_PREFIX)) {
+            return Optional.empty();
+        }
+        String[] segments = destination.substring(GAME_TOPIC_PREFIX.length()).split("/", -1);
         try {
-            return Optional.of(UUID.fromString(gameIdSegment));
+            if (segments.length == 1) {
+                UUID gameId = UUID.fromString(segments[0]);
+                return GameEventBroadcaster.gameTopic(gameId).equals(destination)
+                        ? Optional.of(new GameTopic(gameId, null))
+                        : Optional.empty();
+            }
+            if (segments.length == 3 && TEAMS_SEGMENT.equals(segments[1])) {
+                UUID gameId = UUID.fromString(segments[0]);
+                UUID teamId = UUID.fromString(segments[2]);
+                // Round-tripping rejects non-canonical UUID spellings the broker would treat as another topic
+                return GameEventBroadcaster.teamTopic(gameId, teamId).equals(destination)
+                        ? Optional.of(new GameTopic(gameId, teamId))
+                        : Optional.empty();
+            }
         } catch (IllegalArgumentException ex) {
             return Optional.empty();
         }
+        return Optional.empty();
     }
 
     private String extractToken(StompHeaderAccessor accessor) {
@@ -181,9 +228,13 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
         return bearerToken;
     }
 
-    private record WebSocketUserPrincipal(UUID userId, UserRole role) {
+    /** @param teamId null for the game-wide topic */
+    record GameTopic(UUID gameId, UUID teamId) {
+    }
+
+    record WebSocketUserPrincipal(UUID userId, UserRole role) {
     }
 
-    private record WebSocketPlayerPrincipal(UUID playerId, UUID gameId) {
+    record WebSocketPlayerPrincipal(UUID playerId, UUID gameId, UUID teamId) {
     }
 }
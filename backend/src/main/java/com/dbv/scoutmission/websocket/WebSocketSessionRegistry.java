@@ -0,0 +1,205 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import com.dbv.scoutmission.websocket.WebSocketAuthChannelInterceptor.WebSocketPlayerPrincipal;
+import com.dbv.scoutmission.websocket.WebSocketAuthChannelInterceptor.WebSocketUserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live WebSocket sessions of this node, with the game(s) and principal each belongs to. A
+ * player's session belongs to the game in its token; an operator's session to every game it
+ * subscribes to. Used for per-game connection counts and to skip push for players who already
+ * receive frames over their socket.
+ * <p>
+ * Sessions are tracked by decorating the WebSocket handler, so every inbound frame (heartbeats
+ * included) refreshes the session's last-seen time. Sessions silent for longer than the idle
+ * timeout are closed.
+ */
+@Slf4j
+@Component
+public class WebSocketSessionRegistry implements WebSocketHandlerDecoratorFactory {
+
+    static final CloseStatus IDLE_TIMEOUT = CloseStatus.GOING_AWAY.withReason("Idle timeout");
+
+    private final WebSocketProperties properties;
+    private final Clock clock;
+    private final Counter idleEvictions;
+    private final ConcurrentMap<String, SessionEntry> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WebSocketSessionRegistry(WebSocketProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    WebSocketSessionRegistry(WebSocketProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.idleEvictions = Counter.builder("scoutmission.websocket.idle_evictions")
+                .description("WebSocket sessions closed for not sending any frame within the idle timeout")
+                .register(meterRegistry);
+        Gauge.builder("scoutmission.websocket.sessions", sessions, Map::size)
+                .description("Open WebSocket sessions on this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionEntry(session, clock.millis()));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                SessionEntry entry = sessions.get(session.getId());
+                if (entry != null) {
+                    entry.lastSeen = clock.millis();
+                }
+                super.handleMessage(session, message);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        SessionEntry entry = entryFor(SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()));
+        if (entry == null) {
+            return;
+        }
+        Object principal = unwrap(event.getUser());
+        if (principal instanceof WebSocketPlayerPrincipal player) {
+            entry.playerId = player.playerId();
+            entry.gameIds.add(player.gameId());
+        } else if (principal instanceof WebSocketUserPrincipal user) {
+            entry.userId = user.userId();
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionEntry entry = entryFor(accessor.getSessionId());
+        UUID gameId = GameFanOutMetrics.extractGameId(accessor.getDestination());
+        if (entry != null && gameId != null) {
+            entry.gameIds.add(gameId);
+        }
+    }
+
+    /** Open sessions belonging to the game, by kind of principal. */
+    public ConnectionCounts connectionCounts(UUID gameId) {
+        int operators = 0;
+        int players = 0;
+        for (SessionEntry entry : sessions.values()) {
+            if (!entry.gameIds.contains(gameId)) {
+                continue;
+            }
+            if (entry.playerId != null) {
+                players++;
+            } else if (entry.userId != null) {
+                operators++;
+            }
+        }
+        return new ConnectionCounts(operators, players);
+    }
+
+    /** Players of the game with an open session on this node. */
+    public Set<UUID> connectedPlayerIds(UUID gameId) {
+        Set<UUID> playerIds = new HashSet<>();
+        for (SessionEntry entry : sessions.values()) {
+            UUID playerId = entry.playerId;
+            if (playerId != null && entry.gameIds.contains(gameId)) {
+                playerIds.add(playerId);
+            }
+        }
+        return playerIds;
+    }
+
+    @Scheduled(fixedRate = 15000)
+    public void closeIdleSessions() {
+        long idleTimeout = properties.getHeartbeat().getIdleTimeout().toMillis();
+        if (idleTimeout <= 0) {
+            return;
+        }
+        long cutoff = clock.millis() - idleTimeout;
+        for (SessionEntry entry : sessions.values()) {
+            if (entry.lastSeen >= cutoff) {
+                continue;
+            }
+            log.info("Closing idle WebSocket session {}", entry.session.getId());
+            idleEvictions.increment();
+            sessions.remove(entry.session.getId());
+            try {
+                entry.session.close(IDLE_TIMEOUT);
+            } catch (IOException ex) {
+                log.debug("Failed to close idle WebSocket session {}: {}", entry.session.getId(), ex.getMessage());
+            }
+        }
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    private SessionEntry entryFor(String sessionId) {
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private static Object unwrap(Principal principal) {
+        return principal instanceof Authentication authentication ? authentication.getPrincipal() : principal;
+    }
+
+    public record ConnectionCounts(int operators, int players) {
+        public int total() {
+            return operators + players;
+        }
+    }
+
+    private static final class SessionEntry {
+        private final WebSocketSession session;
+        private final Set<UUID> gameIds = ConcurrentHashMap.newKeySet();
+        private volatile UUID playerId;
+        private volatile UUID userId;
+        private volatile long lastSeen;
+
+        private SessionEntry(WebSocketSession session, long connectedAt) {
+            this.session = session;
+            this.lastSeen = connectedAt;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Latest submission per team/base (DISTINCT ON team_id, base_id ORDER BY submitted_at DESC).
+-- Also covers plain team_id lookups, so the single-column index is no longer needed.
+CREATE INDEX idx_submissions_team_base_latest ON submissions (team_id, base_id, submitted_at DESC);
+DROP INDEX idx_submissions_team;
+
+-- Leaderboard scoring: distinct scored challenges per team.
+CREATE INDEX idx_submissions_team_challenge_scored ON submissions (team_id, challenge_id)
+    WHERE status IN ('approved', 'correct');
@@ -0,0 +1,34 @@
+-- ============================================================
+-- Team location history
+-- ============================================================
+-- Append-only trail of team fixes. Rows are kept compact: coordinates are stored as
+-- integers in 1e-5 degree units (~1 m) and time as epoch seconds. The table is
+-- range-partitioned by UTC day; daily partitions are created ahead of time by
+-- LocationHistoryService and anything outside them lands in the default partition.
+-- resolution_s is 0 for raw fixes and the bucket width for downsampled rows.
+CREATE TABLE team_location_history (
+    team_id       UUID     NOT NULL REFERENCES teams(id) ON DELETE CASCADE,
+    recorded_at   BIGINT   NOT NULL,
+    resolution_s  SMALLINT NOT NULL DEFAULT 0,
+    lat_e5        INTEGER  NOT NULL,
+    lng_e5        INTEGER  NOT NULL,
+    PRIMARY KEY (team_id, recorded_at, resolution_s)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE TABLE team_location_history_default PARTITION OF team_location_history DEFAULT;
+
+-- Create partitions for the next few days so fixes recorded right after the
+-- migration do not go to the default partition.
+DO $$
+DECLARE
+    day_start DATE;
+BEGIN
+    FOR i IN 0..2 LOOP
+        day_start := (now() AT TIME ZONE 'UTC')::date + i;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF team_location_history FOR VALUES FROM (%s) TO (%s)',
+            'team_location_history_' || to_char(day_start, 'YYYYMMDD'),
+            extract(epoch FROM day_start::timestamp)::bigint,
+            extract(epoch FROM (day_start + 1)::timestamp)::bigint);
+    END LOOP;
+END $$;
@@ -0,0 +1,19 @@
+-- ============================================================
+-- Transactional outbox for push and email side effects
+-- ============================================================
+-- Rows are inserted in the same transaction as the business change and delivered by relay
+-- workers on any node, which claim due rows with FOR UPDATE SKIP LOCKED. Claiming pushes
+-- available_at forward (a lease), so rows of a crashed worker are picked up again. Delivered rows
+-- are deleted; rows that exhaust their attempts stay behind as 'failed'.
+CREATE TABLE outbox (
+    id            UUID PRIMARY KEY,
+    type          VARCHAR(50) NOT NULL,
+    payload       JSONB NOT NULL,
+    status        VARCHAR(20) NOT NULL DEFAULT 'pending',
+    attempts      INT NOT NULL DEFAULT 0,
+    available_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    last_error    TEXT,
+    created_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_outbox_due ON outbox (available_at) WHERE status = 'pending';
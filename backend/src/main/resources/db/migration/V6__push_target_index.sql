@@ -0,0 +1,7 @@
+-- ============================================================
+-- Push targeting
+-- ============================================================
+-- Push targeting reads only (platform, token) of players with a token, by team. The partial
+-- covering index answers it with an index-only scan and skips the many players without a token.
+CREATE INDEX idx_players_team_push_targets ON players (team_id) INCLUDE (push_platform, push_token)
+    WHERE push_token IS NOT NULL;
@@ -0,0 +1,154 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.ApnsConfig;
+import com.eatthepath.pushy.apns.ApnsClient;
+import com.eatthepath.pushy.apns.PushNotificationResponse;
+import com.eatthepath.pushy.apns.util.SimpleApnsPushNotification;
+import com.eatthepath.pushy.apns.util.concurrent.PushNotificationFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApnsPushServiceTest {
+
+    private final InvalidPushTokenSink invalidTokenSink = mock(InvalidPushTokenSink.class);
+    private FakeApnsServer apnsServer;
+    private ApnsPushService apnsPushService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        apnsServer = new FakeApnsServer();
+        ApnsConfig config = new ApnsConfig();
+        apnsServer.configure(config);
+        config.setMaxInFlight(50);
+        apnsPushService = new ApnsPushService(config, new DefaultResourceLoader(), invalidTokenSink);
+        apnsPushService.initialize(FakeApnsServer.signingKey());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        apnsPushService.shutdown();
+        apnsServer.close();
+    }
+
+    @Test
+    void deliversThroughABoundedWindowAndReportsUnregisteredTokens() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            tokens.add((i % 100 == 0 ? FakeApnsServer.UNREGISTERED_PREFIX : "abcd") + String.format("%060x", i));
+        }
+
+        PushDeliveryResult result = apnsPushService.sendPush(tokens, "Game", "Lunch at main camp", Map.of("gameId", "g"));
+
+        assertEquals(1188, result.delivered());
+        assertEquals(12, result.failed());
+        assertTrue(result.retryableTokens().isEmpty());
+        assertEquals(tokens.size(), apnsServer.receivedTokens().size());
+        verify(invalidTokenSink, times(12)).report(startsWith(FakeApnsServer.UNREGISTERED_PREFIX));
+    }
+
+    @Test
+    void neverExceedsTheInFlightCeilingAndSortsOutcomes() throws Exception {
+        ApnsConfig config = new ApnsConfig();
+        config.setEnabled(true);
+        config.setBundleId("com.example.app");
+        config.setMaxInFlight(8);
+        ApnsClient client = mock(ApnsClient.class);
+        BlockingQueue<Runnable> answers = new LinkedBlockingQueue<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(client.sendNotification(any())).thenAnswer(invocation -> {
+            SimpleApnsPushNotification notification = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            PushNotificationFuture<SimpleApnsPushNotification, PushNotificationResponse<SimpleApnsPushNotification>>
+                    future = new PushNotificationFuture<>(notification);
+            answers.add(() -> {
+                inFlight.decrementAndGet();
+                answer(future, notification.getToken());
+            });
+            return future;
+        });
+        ApnsPushService service = new ApnsPushService(config, new DefaultResourceLoader(), invalidTokenSink);
+        service.initialize(client);
+
+        // Answers come back one at a time, slower than the service sends, so the window fills up
+        ExecutorService apns = Executors.newSingleThreadExecutor();
+        apns.submit(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                Runnable answer = answers.poll(1, TimeUnit.SECONDS);
+                if (answer != null) {
+                    Thread.sleep(1);
+                    answer.run();
+                }
+            }
+            return null;
+        });
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String prefix = switch (i % 20) {
+                case 0 -> "dead";
+                case 1 -> "bad0";
+                case 2 -> "cafe";
+                default -> "abcd";
+            };
+            tokens.add(prefix + String.format("%060x", i));
+        }
+
+        PushDeliveryResult result;
+        try {
+            result = service.sendPush(tokens, "Game", "Lunch at main camp", Map.of());
+        } finally {
+            apns.shutdownNow();
+        }
+
+        assertEquals(8, maxInFlight.get());
+        assertEquals(170, result.delivered());
+        assertEquals(10, result.failed());
+        assertEquals(20, result.retryableTokens().size());
+        assertTrue(result.retryableTokens().stream()
+                .allMatch(token -> token.startsWith("bad0") || token.startsWith("cafe")));
+        verify(invalidTokenSink, times(10)).report(startsWith("dead"));
+    }
+
+    /** {@code dead…} is unregistered, {@code cafe…} is throttled, {@code bad0…} loses its connection. */
+    @SuppressWarnings("unchecked")
+    private static void answer(CompletableFuture<PushNotificationResponse<SimpleApnsPushNotification>> future,
+                               String token) {
+        if (token.startsWith("bad0")) {
+            future.completeExceptionally(new IOException("Connection reset"));
+            return;
+        }
+        PushNotificationResponse<SimpleApnsPushNotification> response = mock(PushNotificationResponse.class);
+        if (token.startsWith("dead")) {
+            when(response.getRejectionReason()).thenReturn(Optional.of("Unregistered"));
+        } else if (token.startsWith("cafe")) {
+            when(response.getRejectionReason()).thenReturn(Optional.of("TooManyRequests"));
+        } else {
+            when(response.isAccepted()).thenReturn(true);
+        }
+        future.complete(response);
+    }
+}
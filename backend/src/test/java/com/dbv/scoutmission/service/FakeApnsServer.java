@@ -0,0 +1,91 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.ApnsConfig;
+import com.eatthepath.pushy.apns.auth.ApnsSigningKey;
+import com.eatthepath.pushy.apns.server.MockApnsServer;
+import com.eatthepath.pushy.apns.server.MockApnsServerBuilder;
+import com.eatthepath.pushy.apns.server.RejectedNotificationException;
+import com.eatthepath.pushy.apns.server.UnregisteredDeviceTokenException;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Local stand-in for the APNs HTTP/2 API, built on Pushy's {@link MockApnsServer} with a
+ * self-signed certificate. Accepts every token except those starting with {@code dead}, which
+ * get the 410 Unregistered response APNs returns for uninstalled apps.
+ */
+class FakeApnsServer implements AutoCloseable {
+
+    static final String UNREGISTERED_PREFIX = "dead";
+
+    private final SelfSignedCertificate certificate;
+    private final MockApnsServer server;
+    private final int port;
+    private final Set<String> receivedTokens = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> arrivalNanos = new ConcurrentLinkedQueue<>();
+
+    FakeApnsServer() throws Exception {
+        certificate = new SelfSignedCertificate("localhost");
+        server = new MockApnsServerBuilder()
+                .setServerCredentials(certificate.certificate(), certificate.privateKey(), null)
+                .setHandlerFactory(sslSession -> this::handle)
+                .build();
+        port = server.start(0).get();
+    }
+
+    /** Points the APNs client at this server. */
+    void configure(ApnsConfig config) {
+        config.setEnabled(true);
+        config.setBundleId("com.dbv.scoutmission.test");
+        config.setHost("localhost");
+        config.setPort(port);
+        config.setTrustedServerCertificatePath("file:" + certificate.certificate().getAbsolutePath());
+    }
+
+    /** A throwaway token-auth key; the server accepts any signature. */
+    static ApnsSigningKey signingKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return new ApnsSigningKey("KEYID12345", "TEAMID1234", (ECPrivateKey) generator.generateKeyPair().getPrivate());
+    }
+
+    Set<String> receivedTokens() {
+        return receivedTokens;
+    }
+
+    /** {@link System#nanoTime()} at which each notification arrived. */
+    Queue<Long> arrivalNanos() {
+        return arrivalNanos;
+    }
+
+    void reset() {
+        receivedTokens.clear();
+        arrivalNanos.clear();
+    }
+
+    private void handle(Http2Headers headers, ByteBuf payload) throws RejectedNotificationException {
+        arrivalNanos.add(System.nanoTime());
+        String path = headers.path().toString();
+        String token = path.substring(path.lastIndexOf('/') + 1);
+        receivedTokens.add(token);
+        if (token.startsWith(UNREGISTERED_PREFIX)) {
+            throw new UnregisteredDeviceTokenException(Instant.now());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.shutdown().get();
+        certificate.delete();
+    }
+}
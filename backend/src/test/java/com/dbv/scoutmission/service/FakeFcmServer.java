@@ -0,0 +1,105 @@
+package com.dbv.scoutmission.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the FCM HTTP v1 send endpoint. Accepts every token except those starting
+ * with {@code unregistered-}, which get the 404 UNREGISTERED error FCM returns for uninstalled apps.
+ */
+class FakeFcmServer implements AutoCloseable {
+
+    /**
+     * FcmPushService sends each token of a multicast as its own request, so a couple of 500-token
+     * chunks in flight open hundreds of connections at once. The default accept backlog (usually
+     * 50) and a small handler pool reset most of them.
+     */
+    private static final int BACKLOG = 2048;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String UNREGISTERED = """
+            {"error":{"code":404,"message":"Requested entity was not found.","status":"NOT_FOUND",\
+            "details":[{"@type":"type.googleapis.com/google.firebase.fcm.v1.FcmError","errorCode":"UNREGISTERED"}]}}""";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong messageIds = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<String> receivedTokens = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> arrivalNanos = new ConcurrentLinkedQueue<>();
+
+    FakeFcmServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), BACKLOG);
+        server.createContext("/v1/projects/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    Set<String> receivedTokens() {
+        return receivedTokens;
+    }
+
+    /** {@link System#nanoTime()} at which each send request arrived. */
+    Queue<Long> arrivalNanos() {
+        return arrivalNanos;
+    }
+
+    void reset() {
+        requests.set(0);
+        receivedTokens.clear();
+        arrivalNanos.clear();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        arrivalNanos.add(System.nanoTime());
+        requests.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher matcher = TOKEN.matcher(body);
+        String token = matcher.find() ? matcher.group(1) : "";
+        receivedTokens.add(token);
+
+        int status;
+        String response;
+        if (token.startsWith("unregistered-")) {
+            status = 404;
+            response = UNREGISTERED;
+        } else {
+            status = 200;
+            response = "{\"name\":\"projects/test-project/messages/" + messageIds.incrementAndGet() + "\"}";
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
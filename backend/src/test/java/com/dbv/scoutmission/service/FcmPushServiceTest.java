@@ -0,0 +1,97 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.FcmConfig;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.ErrorCode;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.net.SocketException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FcmPushServiceTest {
+
+    private final InvalidPushTokenSink invalidTokenSink = mock(InvalidPushTokenSink.class);
+    private FakeFcmServer fcmServer;
+    private FcmPushService fcmPushService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fcmServer = new FakeFcmServer();
+        FcmConfig config = new FcmConfig();
+        config.setEnabled(true);
+        config.setProjectId("test-project");
+        config.setEndpoint(fcmServer.endpoint());
+        config.setMaxConcurrentChunks(2);
+        fcmPushService = new FcmPushService(config, new DefaultResourceLoader(), invalidTokenSink);
+        fcmPushService.initialize(GoogleCredentials.create(
+                new AccessToken("test-token", Date.from(Instant.now().plusSeconds(3600)))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fcmPushService.shutdown();
+        fcmServer.close();
+    }
+
+    @Test
+    void splitsLargeAnnouncementsIntoChunksAndAggregatesResults() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1234; i++) {
+            tokens.add((i % 100 == 0 ? "unregistered-" : "token-") + i);
+        }
+
+        PushDeliveryResult result = fcmPushService.sendPush(tokens, "Game", "Lunch at main camp", Map.of("gameId", "g"));
+
+        assertEquals(1221, result.delivered());
+        assertEquals(13, result.failed());
+        assertTrue(result.retryableTokens().isEmpty());
+        assertEquals(tokens.size(), fcmServer.receivedTokens().size());
+        verify(invalidTokenSink, times(13)).report(startsWith("unregistered-"));
+    }
+
+    @Test
+    void networkAndUnknownErrorsAreRetryable() {
+        FirebaseMessagingException connectionReset = mock(FirebaseMessagingException.class);
+        when(connectionReset.getCause()).thenReturn(new SocketException("Connection reset"));
+        FirebaseMessagingException unknown = mock(FirebaseMessagingException.class);
+        when(unknown.getErrorCode()).thenReturn(ErrorCode.UNKNOWN);
+        FirebaseMessagingException unregistered = mock(FirebaseMessagingException.class);
+        when(unregistered.getErrorCode()).thenReturn(ErrorCode.NOT_FOUND);
+        when(unregistered.getMessagingErrorCode()).thenReturn(MessagingErrorCode.UNREGISTERED);
+
+        assertTrue(FcmPushService.isTransient(connectionReset));
+        assertTrue(FcmPushService.isTransient(unknown));
+        assertFalse(FcmPushService.isTransient(unregistered));
+    }
+
+    @Test
+    void chunksNeverExceedTheMulticastLimit() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            tokens.add("token-" + i);
+        }
+
+        List<List<String>> chunks = FcmPushService.chunks(tokens, FcmPushService.MAX_MULTICAST_TOKENS);
+
+        assertEquals(List.of(500, 500, 1), chunks.stream().map(List::size).toList());
+    }
+}
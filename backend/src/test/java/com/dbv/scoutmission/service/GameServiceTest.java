@@ -1,14 +1,17 @@
 package com.dbv.scoutmission.service;
 
+import com.dbv.scoutmission.dto.export.AssignmentExportDto;
 import com.dbv.scoutmission.dto.export.BaseExportDto;
 import com.dbv.scoutmission.dto.export.ChallengeExportDto;
 import com.dbv.scoutmission.dto.export.GameExportDto;
 import com.dbv.scoutmission.dto.export.GameMetadataDto;
-import com.dbv.scoutmission.dto.request.GameImportRequest;
+import com.dbv.scoutmission.dto.export.TeamExportDto;
 import com.dbv.scoutmission.dto.response.GameResponse;
 import com.dbv.scoutmission.entity.*;
 import com.dbv.scoutmission.exception.BadRequestException;
 import com.dbv.scoutmission.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,20 +19,39 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -58,6 +80,17 @@ class GameServiceTest {
     private ActivityEventRepository activityEventRepository;
     @Mock
     private GameAccessService gameAccessService;
+    @Mock
+    private BulkPersister bulkPersister;
+    @Mock
+    private JoinCodeGenerator joinCodeGenerator;
+    @Mock
+    private GameExportRepository gameExportRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks
     private GameService gameService;
@@ -84,7 +117,7 @@ class GameServiceTest {
     }
 
     @Test
-    void exportGameIncludesRequirePresenceToSubmitInBasePayload() {
+    void exportGameIncludesRequirePresenceToSubmitInBasePayload() throws Exception {
         UUID gameId = UUID.randomUUID();
         Game game = Game.builder()
                 .id(gameId)
@@ -94,34 +127,128 @@ class GameServiceTest {
                 .createdBy(authenticatedUser)
                 .build();
 
-        Base base = Base.builder()
-                .id(UUID.randomUUID())
-                .game(game)
-                .name("Base A")
+        when(gameAccessService.getAccessibleGame(gameId)).thenReturn(game);
+        doAnswer(invocation -> {
+            invocation.<Consumer<GameExportRepository.BaseRow>>getArgument(1).accept(new GameExportRepository.BaseRow(
+                    UUID.randomUUID(), "Base A", "Desc", 40.0, -8.0, false, true, null));
+            return null;
+        }).when(gameExportRepository).streamBases(eq(gameId), any());
+
+        GameExportDto exported = objectMapper.readValue(export(gameId, false), GameExportDto.class);
+
+        assertEquals(1, exported.getBases().size());
+        assertEquals("base_1", exported.getBases().get(0).getTempId());
+        assertTrue(exported.getBases().get(0).getRequirePresenceToSubmit());
+    }
+
+    @Test
+    void exportStreamsTheSameBytesAsSerializingTheWholeExport() throws Exception {
+        UUID gameId = UUID.randomUUID();
+        UUID challengeId = UUID.randomUUID();
+        UUID baseId = UUID.randomUUID();
+        UUID teamId = UUID.randomUUID();
+        Game game = Game.builder()
+                .id(gameId)
+                .name("Game")
+                .description("Desc")
+                .uniformAssignment(false)
+                .status(GameStatus.setup)
+                .createdBy(authenticatedUser)
+                .build();
+
+        when(gameAccessService.getAccessibleGame(gameId)).thenReturn(game);
+        when(gameExportRepository.findChallengeIds(gameId)).thenReturn(List.of(challengeId));
+        when(gameExportRepository.findTeamIds(gameId)).thenReturn(List.of(teamId));
+        doAnswer(invocation -> {
+            invocation.<Consumer<GameExportRepository.BaseRow>>getArgument(1).accept(new GameExportRepository.BaseRow(
+                    baseId, "Base A", "", 40.0, -8.0, true, false, challengeId));
+            return null;
+        }).when(gameExportRepository).streamBases(eq(gameId), any());
+        doAnswer(invocation -> {
+            invocation.<Consumer<GameExportRepository.ChallengeRow>>getArgument(1).accept(
+                    new GameExportRepository.ChallengeRow(challengeId, "Knots", "", "<p>Tie a bowline</p>", "",
+                            AnswerType.text, true, "bowline", 50, false));
+            return null;
+        }).when(gameExportRepository).streamChallenges(eq(gameId), any());
+        doAnswer(invocation -> {
+            invocation.<Consumer<GameExportRepository.AssignmentRow>>getArgument(1).accept(
+                    new GameExportRepository.AssignmentRow(baseId, challengeId, teamId));
+            return null;
+        }).when(gameExportRepository).streamAssignments(eq(gameId), any());
+        doAnswer(invocation -> {
+            invocation.<Consumer<GameExportRepository.TeamRow>>getArgument(1).accept(
+                    new GameExportRepository.TeamRow(teamId, "Eagles", "#3b82f6"));
+            return null;
+        }).when(gameExportRepository).streamTeams(eq(gameId), any());
+
+        byte[] compressed = export(gameId, true);
+        byte[] streamed;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            streamed = input.readAllBytes();
+        }
+
+        GameExportDto exported = objectMapper.readValue(streamed, GameExportDto.class);
+        assertArrayEquals(objectMapper.writeValueAsBytes(exported), streamed);
+        assertEquals("challenge_1", exported.getBases().get(0).getFixedChallengeTempId());
+        assertEquals("<p>Tie a bowline</p>", exported.getChallenges().get(0).getContent());
+        assertEquals("base_1", exported.getAssignments().get(0).getBaseTempId());
+        assertEquals("team_1", exported.getAssignments().get(0).getTeamTempId());
+        assertEquals("team_1", exported.getTeams().get(0).getTempId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void goingLiveSavesAllGeneratedAssignmentsInOneBatch() {
+        UUID gameId = UUID.randomUUID();
+        Game game = Game.builder()
+                .id(gameId)
+                .name("Game")
                 .description("Desc")
-                .lat(40.0)
-                .lng(-8.0)
-                .nfcLinked(true)
-                .hidden(false)
-                .requirePresenceToSubmit(true)
+                .status(GameStatus.setup)
+                .createdBy(authenticatedUser)
+                .uniformAssignment(false)
                 .build();
+        List<Team> teams = List.of(
+                Team.builder().id(UUID.randomUUID()).game(game).name("Team 1").build(),
+                Team.builder().id(UUID.randomUUID()).game(game).name("Team 2").build());
+        List<Challenge> challenges = List.of(challenge(game), challenge(game), challenge(game));
+        Base fixedBase = Base.builder().id(UUID.randomUUID()).game(game).name("Fixed").fixedChallenge(challenges.get(0)).build();
+        Base randomBase = Base.builder().id(UUID.randomUUID()).game(game).name("Random").build();
+        Base assignedBase = Base.builder().id(UUID.randomUUID()).game(game).name("Assigned").build();
+        Assignment manual = Assignment.builder().game(game).base(assignedBase).challenge(challenges.get(1)).build();
 
         when(gameAccessService.getAccessibleGame(gameId)).thenReturn(game);
-        when(baseRepository.findByGameId(gameId)).thenReturn(List.of(base));
-        when(challengeRepository.findByGameId(gameId)).thenReturn(List.of());
-        when(teamRepository.findByGameId(gameId)).thenReturn(List.of());
-        when(assignmentRepository.findByGameId(gameId)).thenReturn(List.of());
+        when(baseRepository.countByGameId(gameId)).thenReturn(3L);
+        when(baseRepository.countByGameIdAndNfcLinkedTrue(gameId)).thenReturn(3L);
+        when(teamRepository.countByGameId(gameId)).thenReturn(2L);
+        when(challengeRepository.countByGameId(gameId)).thenReturn(3L);
+        when(baseRepository.findByGameId(gameId)).thenReturn(List.of(fixedBase, randomBase, assignedBase));
+        when(teamRepository.findByGameId(gameId)).thenReturn(teams);
+        when(challengeRepository.findByGameId(gameId)).thenReturn(challenges);
+        when(assignmentRepository.findByGameId(gameId)).thenReturn(List.of(manual));
+        when(gameRepository.save(game)).thenReturn(game);
 
-        GameExportDto exported = gameService.exportGame(gameId);
+        gameService.updateStatus(gameId, "live", false);
 
-        assertEquals(1, exported.getBases().size());
-        assertTrue(exported.getBases().get(0).getRequirePresenceToSubmit());
+        ArgumentCaptor<List<Assignment>> saved = ArgumentCaptor.forClass(List.class);
+        verify(assignmentRepository).saveAll(saved.capture());
+        verify(assignmentRepository, never()).save(any(Assignment.class));
+        List<Assignment> assignments = saved.getValue();
+        assertEquals(4, assignments.size());
+        // The only challenge neither fixed nor used by the global manual assignment
+        assertTrue(assignments.stream()
+                .filter(a -> a.getBase() == randomBase)
+                .allMatch(a -> a.getChallenge() == challenges.get(2)));
+        assertTrue(assignments.stream().noneMatch(a -> a.getBase() == assignedBase));
+    }
+
+    private static Challenge challenge(Game game) {
+        return Challenge.builder().id(UUID.randomUUID()).game(game).title("Challenge").locationBound(false).build();
     }
 
     @Test
-    void importGamePreservesRequirePresenceAndDefaultsOptionalChallengeFields() {
+    void importGamePreservesRequirePresenceAndDefaultsOptionalChallengeFields() throws Exception {
         UUID importedGameId = UUID.randomUUID();
-        UUID importedChallengeId = UUID.randomUUID();
 
         when(userRepository.findById(authenticatedUser.getId())).thenReturn(Optional.of(authenticatedUser));
         when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
@@ -129,15 +256,8 @@ class GameServiceTest {
             game.setId(importedGameId);
             return game;
         });
-        when(challengeRepository.save(any(Challenge.class))).thenAnswer(invocation -> {
-            Challenge challenge = invocation.getArgument(0);
-            challenge.setId(importedChallengeId);
-            return challenge;
-        });
-        when(baseRepository.save(any(Base.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        GameImportRequest request = new GameImportRequest();
-        request.setGameData(GameExportDto.builder()
+        GameExportDto data = GameExportDto.builder()
                 .exportVersion("1.0")
                 .game(GameMetadataDto.builder()
                         .name("Imported Game")
@@ -166,19 +286,17 @@ class GameServiceTest {
                         .build()))
                 .assignments(List.of())
                 .teams(List.of())
-                .build());
+                .build();
 
-        GameResponse imported = gameService.importGame(request);
+        GameResponse imported = importGame(data);
 
-        ArgumentCaptor<Base> baseCaptor = ArgumentCaptor.forClass(Base.class);
-        verify(baseRepository).save(baseCaptor.capture());
-        Base savedBase = baseCaptor.getValue();
+        ArgumentCaptor<Collection<?>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(bulkPersister, times(2)).persistAll(batches.capture());
+        Base savedBase = (Base) batches.getAllValues().get(1).iterator().next();
         assertTrue(savedBase.getRequirePresenceToSubmit());
         assertEquals("", savedBase.getDescription());
 
-        ArgumentCaptor<Challenge> challengeCaptor = ArgumentCaptor.forClass(Challenge.class);
-        verify(challengeRepository).save(challengeCaptor.capture());
-        Challenge savedChallenge = challengeCaptor.getValue();
+        Challenge savedChallenge = (Challenge) batches.getAllValues().get(0).iterator().next();
         assertEquals("", savedChallenge.getDescription());
         assertEquals("", savedChallenge.getContent());
         assertEquals("", savedChallenge.getCompletionContent());
@@ -189,29 +307,123 @@ class GameServiceTest {
     }
 
     @Test
-    void importGameRejectsUnsupportedExportVersion() {
+    void importWritesSectionsInBatchesAndWiresForwardReferences() throws Exception {
         when(userRepository.findById(authenticatedUser.getId())).thenReturn(Optional.of(authenticatedUser));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(joinCodeGenerator.generate(2)).thenReturn(List.of("AAAAAAA", "BBBBBBB"));
+        doAnswer(invocation -> {
+            for (Object entity : invocation.<Collection<?>>getArgument(0)) {
+                switch (entity) {
+                    case Challenge challenge -> challenge.setId(UUID.randomUUID());
+                    case Base base -> base.setId(UUID.randomUUID());
+                    case Team team -> team.setId(UUID.randomUUID());
+                    default -> { }
+                }
+            }
+            return null;
+        }).when(bulkPersister).persistAll(any());
+        when(bulkPersister.reference(any(), any())).thenAnswer(invocation -> reference(invocation.getArgument(0),
+                invocation.getArgument(1)));
+
+        List<BaseExportDto> bases = new ArrayList<>();
+        List<ChallengeExportDto> challenges = new ArrayList<>();
+        List<AssignmentExportDto> assignments = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            bases.add(BaseExportDto.builder().tempId("base_" + i).name("Base " + i).lat(1.0).lng(2.0).build());
+            challenges.add(ChallengeExportDto.builder()
+                    .tempId("challenge_" + i).title("Challenge " + i).answerType(AnswerType.text).points(10).build());
+            assignments.add(AssignmentExportDto.builder()
+                    .baseTempId("base_" + i).challengeTempId("challenge_" + i).teamTempId(i % 2 == 0 ? "team_a" : null)
+                    .build());
+        }
+        // Serialized in export order: bases before challenges, assignments before teams
+        GameExportDto data = GameExportDto.builder()
+                .exportVersion("1.0")
+                .game(GameMetadataDto.builder().name("Camporee").uniformAssignment(false).build())
+                .bases(bases)
+                .challenges(challenges)
+                .assignments(assignments)
+                .teams(List.of(
+                        TeamExportDto.builder().tempId("team_a").name("Eagles").color("#3b82f6").build(),
+                        TeamExportDto.builder().tempId("team_b").name("Owls").color("#ef4444").build()))
+                .build();
+
+        importGame(data);
+
+        ArgumentCaptor<Collection<?>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(bulkPersister, times(7)).persistAll(batches.capture());
+        List<Collection<?>> written = batches.getAllValues();
+        assertEquals(List.of(100, 100, 100, 100, 2, 100, 100), written.stream().map(Collection::size).toList());
+        verify(bulkPersister, times(7)).detachAll(any());
+
+        List<Team> teams = written.get(4).stream().map(Team.class::cast).toList();
+        assertEquals(List.of("AAAAAAA", "BBBBBBB"), teams.stream().map(Team::getJoinCode).toList());
+        Base firstBase = (Base) written.get(2).iterator().next();
+        Challenge firstChallenge = (Challenge) written.get(0).iterator().next();
+        Assignment first = (Assignment) written.get(5).iterator().next();
+        assertEquals(firstBase.getId(), first.getBase().getId());
+        assertEquals(firstChallenge.getId(), first.getChallenge().getId());
+        assertEquals(teams.get(0).getId(), first.getTeam().getId());
+
+        verify(baseRepository, never()).findById(any());
+        verify(challengeRepository, never()).findById(any());
+        verify(teamRepository, never()).findById(any());
+    }
+
+    @Test
+    void importGameReportsTheJsonPathOfInvalidValues() {
+        String body = """
+                {"gameData": {"exportVersion": "1.0", "game": {"name": "Game"}, "bases": [],
+                  "challenges": [{"tempId": "c1", "title": "A", "answerType": "text", "points": 5},
+                                 {"tempId": "c2", "title": "B", "answerType": "text", "points": "many"}],
+                  "assignments": []}}
+                """;
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> gameService.importGame(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(ex.getMessage().startsWith("gameData.challenges[1].points is invalid"), ex.getMessage());
+        verify(gameRepository, never()).save(any(Game.class));
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void importGameRejectsReferencesToTeamsThatNeverAppear() {
+        String body = """
+                {"gameData": {"exportVersion": "1.0", "game": {"name": "Game"},
+                  "bases": [{"tempId": "b1", "name": "Base", "lat": 1.0, "lng": 2.0}],
+                  "challenges": [{"tempId": "c1", "title": "A", "answerType": "text", "points": 5}],
+                  "assignments": [{"baseTempId": "b1", "challengeTempId": "c1", "teamTempId": "t9"}],
+                  "teams": [{"tempId": "t1", "name": "Eagles", "color": "#3b82f6"}]}}
+                """;
 
-        GameImportRequest request = new GameImportRequest();
-        request.setGameData(GameExportDto.builder()
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> gameService.importGame(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+        assertEquals("gameData.assignments[0].teamTempId references non-existent team: t9", ex.getMessage());
+        verify(gameRepository, never()).save(any(Game.class));
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void importGameRejectsUnsupportedExportVersion() throws Exception {
+
+        GameExportDto data = GameExportDto.builder()
                 .exportVersion("2.0")
                 .game(GameMetadataDto.builder().name("Game").description("").uniformAssignment(false).build())
                 .bases(List.of())
                 .challenges(List.of())
                 .assignments(List.of())
-                .build());
+                .build();
 
-        BadRequestException ex = assertThrows(BadRequestException.class, () -> gameService.importGame(request));
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> importGame(data));
         assertTrue(ex.getMessage().contains("Unsupported export version"));
         verify(gameRepository, never()).save(any(Game.class));
+        verify(transactionTemplate, never()).execute(any());
     }
 
     @Test
-    void importGameRejectsMalformedChallengeMissingPoints() {
-        when(userRepository.findById(authenticatedUser.getId())).thenReturn(Optional.of(authenticatedUser));
+    void importGameRejectsMalformedChallengeMissingPoints() throws Exception {
 
-        GameImportRequest request = new GameImportRequest();
-        request.setGameData(GameExportDto.builder()
+        GameExportDto data = GameExportDto.builder()
                 .exportVersion("1.0")
                 .game(GameMetadataDto.builder().name("Game").description("").uniformAssignment(false).build())
                 .bases(List.of(BaseExportDto.builder()
@@ -231,10 +443,44 @@ class GameServiceTest {
                         .build()))
                 .assignments(List.of())
                 .teams(List.of())
-                .build());
+                .build();
 
-        BadRequestException ex = assertThrows(BadRequestException.class, () -> gameService.importGame(request));
-        assertEquals("challenges[0].points is required", ex.getMessage());
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> importGame(data));
+        assertEquals("gameData.challenges[0].points is required", ex.getMessage());
         verify(gameRepository, never()).save(any(Game.class));
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void importGameRejectsBodiesOverTheSizeLimit() {
+        ReflectionTestUtils.setField(gameService, "importMaxSize", DataSize.ofBytes(64));
+        byte[] body = ("{\"gameData\": {\"game\": {\"name\": \"" + "x".repeat(100) + "\"}}}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> gameService.importGame(new ByteArrayInputStream(body)));
+        assertEquals("Import body exceeds the limit of 64 bytes", ex.getMessage());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    private GameResponse importGame(GameExportDto data) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("gameData", data));
+        return gameService.importGame(new ByteArrayInputStream(body));
+    }
+
+    private static Object reference(Class<?> type, UUID id) {
+        if (type == Base.class) {
+            return Base.builder().id(id).build();
+        }
+        if (type == Challenge.class) {
+            return Challenge.builder().id(id).build();
+        }
+        return Team.builder().id(id).build();
+    }
+
+    private byte[] export(UUID gameId, boolean gzip) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        gameService.exportGame(gameId, gzip).writeTo(output);
+        return output.toByteArray();
     }
 }
@@ -0,0 +1,71 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.PushProperties;
+import com.dbv.scoutmission.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvalidPushTokenSinkTest {
+
+    private final PlayerRepository playerRepository = mock(PlayerRepository.class);
+    private InvalidPushTokenSink sink;
+
+    @BeforeEach
+    void setUp() {
+        PushProperties properties = new PushProperties();
+        properties.setPruneBatchSize(2);
+        sink = new InvalidPushTokenSink(playerRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clearsReportedTokensInBatches() {
+        when(playerRepository.clearPushTokens(anyCollection())).thenAnswer(inv -> inv.<Collection<String>>getArgument(0).size());
+        sink.report("a");
+        sink.report("b");
+        sink.report("c");
+        sink.report("a");
+
+        sink.flush();
+
+        ArgumentCaptor<Collection<String>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(playerRepository, times(2)).clearPushTokens(batches.capture());
+        Set<String> cleared = new HashSet<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (Collection<String> batch : batches.getAllValues()) {
+            cleared.addAll(batch);
+            sizes.add(batch.size());
+        }
+        assertEquals(Set.of("a", "b", "c"), cleared);
+        assertEquals(List.of(2, 1), sizes);
+        assertEquals(0, sink.pendingCount());
+    }
+
+    @Test
+    void keepsTokensWhenTheUpdateFails() {
+        when(playerRepository.clearPushTokens(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        sink.report("a");
+
+        sink.flush();
+
+        assertEquals(1, sink.pendingCount());
+    }
+}
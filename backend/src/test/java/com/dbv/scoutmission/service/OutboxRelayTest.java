@@ -0,0 +1,94 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.OutboxProperties;
+import com.dbv.scoutmission.repository.OutboxRepository;
+import com.dbv.scoutmission.repository.OutboxRepository.OutboxRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final TestHandler handler = mock(TestHandler.class);
+    private final OutboxProperties properties = new OutboxProperties();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(handler.type()).thenReturn("test");
+        when(handler.payloadType()).thenReturn(TestPayload.class);
+        ObjectProvider<OutboxHandler<?>> handlers = mock(ObjectProvider.class);
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.of(handler));
+        properties.setMaxAttempts(3);
+        relay = new OutboxRelay(outboxRepository, handlers, new ObjectMapper(), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void deletesRowsOnceDelivered() throws Exception {
+        OutboxRow row = row(1, "{\"value\":\"a\"}");
+        when(outboxRepository.claim(anyInt(), any())).thenReturn(List.of(row), List.of());
+        when(handler.handle(new TestPayload("a"), 1)).thenReturn(null);
+
+        relay.poll();
+
+        verify(outboxRepository, timeout(1000)).delete(row.id());
+    }
+
+    @Test
+    void reschedulesWhatIsLeftWithTheLastError() throws Exception {
+        OutboxRow row = row(1, "{\"value\":\"a\"}");
+        when(outboxRepository.claim(anyInt(), any())).thenReturn(List.of(row), List.of());
+        when(handler.handle(new TestPayload("a"), 1)).thenThrow(new IllegalStateException("smtp down"));
+
+        relay.poll();
+
+        verify(outboxRepository, timeout(1000)).reschedule(eq(row.id()), eq("{\"value\":\"a\"}"), any(), eq("smtp down"));
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void marksRowsFailedAfterTheLastAttempt() throws Exception {
+        OutboxRow row = row(3, "{\"value\":\"ab\"}");
+        when(outboxRepository.claim(anyInt(), any())).thenReturn(List.of(row), List.of());
+        when(handler.handle(new TestPayload("ab"), 3)).thenReturn(new TestPayload("b"));
+
+        relay.poll();
+
+        verify(outboxRepository, timeout(1000)).markFailed(eq(row.id()), eq("{\"value\":\"b\"}"), isNull());
+        verify(handler, timeout(1000)).abandoned(new TestPayload("b"), 3);
+    }
+
+    private static OutboxRow row(int attempts, String payload) {
+        return new OutboxRow(UUID.randomUUID(), "test", payload, attempts);
+    }
+
+    record TestPayload(String value) {
+    }
+
+    interface TestHandler extends OutboxHandler<TestPayload> {
+    }
+}
@@ -0,0 +1,90 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.entity.PushPlatform;
+import com.dbv.scoutmission.websocket.GameEventBroadcaster;
+import com.dbv.scoutmission.websocket.GameEventFrame;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PushDispatcherTest {
+
+    private final ApnsPushService apnsPushService = mock(ApnsPushService.class);
+    private final FcmPushService fcmPushService = mock(FcmPushService.class);
+    private final GameEventBroadcaster eventBroadcaster = mock(GameEventBroadcaster.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final PushMessage message = new PushMessage("Game", "Hello", Map.of());
+    private final UUID gameId = UUID.randomUUID();
+    private final UUID notificationId = UUID.randomUUID();
+
+    private final PushDispatcher dispatcher = new PushDispatcher(apnsPushService, fcmPushService, eventBroadcaster,
+            outboxService, new SimpleMeterRegistry());
+
+    @Test
+    void queuesOneOutboxRowPerPlatformWithTokens() {
+        dispatcher.dispatch(gameId, "notification", notificationId,
+                Map.of(PushPlatform.ios, List.of("a", "b"), PushPlatform.android, List.of()), message);
+
+        ArgumentCaptor<PushDispatcher.PushDelivery> captor = ArgumentCaptor.forClass(PushDispatcher.PushDelivery.class);
+        verify(outboxService).enqueue(eq(PushDispatcher.OUTBOX_TYPE), captor.capture());
+        assertEquals(PushPlatform.ios, captor.getValue().platform());
+        assertEquals(List.of("a", "b"), captor.getValue().tokens());
+    }
+
+    @Test
+    void returnsTransientFailuresForRetryAndReportsFinalStatus() {
+        when(apnsPushService.sendPush(eq(List.of("a", "b")), anyString(), anyString(), any()))
+                .thenReturn(new PushDeliveryResult(1, 0, List.of("b")));
+        when(apnsPushService.sendPush(eq(List.of("b")), anyString(), anyString(), any()))
+                .thenReturn(new PushDeliveryResult(1, 0, List.of()));
+
+        PushDispatcher.PushDelivery remaining = dispatcher.handle(delivery(PushPlatform.ios, List.of("a", "b")), 1);
+        assertEquals(List.of("b"), remaining.tokens());
+        assertEquals(1, remaining.delivered());
+        verify(eventBroadcaster, never()).broadcastPushStatus(any(), any());
+
+        assertNull(dispatcher.handle(remaining, 2));
+        GameEventFrame.PushStatusData status = reportedStatus();
+        assertEquals("delivered", status.status());
+        assertEquals(2, status.delivered());
+        assertEquals(2, status.attempts());
+    }
+
+    @Test
+    void countsTokensLeftWhenAbandonedAsFailed() {
+        when(fcmPushService.sendPush(eq(List.of("x")), anyString(), anyString(), any()))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        PushDispatcher.PushDelivery remaining = dispatcher.handle(delivery(PushPlatform.android, List.of("x")), 3);
+        dispatcher.abandoned(remaining, 3);
+
+        GameEventFrame.PushStatusData status = reportedStatus();
+        assertEquals("failed", status.status());
+        assertEquals(1, status.failed());
+        assertEquals(3, status.attempts());
+    }
+
+    private PushDispatcher.PushDelivery delivery(PushPlatform platform, List<String> tokens) {
+        return new PushDispatcher.PushDelivery(gameId, "notification", notificationId, platform, message, tokens, 0, 0);
+    }
+
+    private GameEventFrame.PushStatusData reportedStatus() {
+        ArgumentCaptor<GameEventFrame.PushStatusData> captor = ArgumentCaptor.forClass(GameEventFrame.PushStatusData.class);
+        verify(eventBroadcaster).broadcastPushStatus(eq(gameId), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,173 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.ApnsConfig;
+import com.dbv.scoutmission.config.FcmConfig;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Sends one announcement to 1k and 10k simulated devices per platform, against local fake APNs
+ * and FCM servers, and reports throughput, the time until each token reached the provider
+ * (percentiles from the start of the send) and the peak heap growth during the send.
+ * <p>
+ * Excluded from the regular test run; use {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class PushFanOutBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000};
+    private static final int WARMUP_TOKENS = 500;
+    private static final Map<String, String> DATA = Map.of("gameId", "6f1c1f7e-3b8a-4d55-9a55-0c5a0d0e8a11");
+
+    private final InvalidPushTokenSink invalidTokenSink = mock(InvalidPushTokenSink.class);
+    private FakeApnsServer apnsServer;
+    private FakeFcmServer fcmServer;
+    private ApnsPushService apnsPushService;
+    private FcmPushService fcmPushService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        apnsServer = new FakeApnsServer();
+        ApnsConfig apnsConfig = new ApnsConfig();
+        apnsServer.configure(apnsConfig);
+        apnsPushService = new ApnsPushService(apnsConfig, new DefaultResourceLoader(), invalidTokenSink);
+        apnsPushService.initialize(FakeApnsServer.signingKey());
+
+        fcmServer = new FakeFcmServer();
+        FcmConfig fcmConfig = new FcmConfig();
+        fcmConfig.setEnabled(true);
+        fcmConfig.setProjectId("test-project");
+        fcmConfig.setEndpoint(fcmServer.endpoint());
+        fcmPushService = new FcmPushService(fcmConfig, new DefaultResourceLoader(), invalidTokenSink);
+        fcmPushService.initialize(GoogleCredentials.create(
+                new AccessToken("test-token", Date.from(Instant.now().plusSeconds(3600)))));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        apnsPushService.shutdown();
+        fcmPushService.shutdown();
+        apnsServer.close();
+        fcmServer.close();
+    }
+
+    @Test
+    void announcementFanOut() {
+        List<Result> results = new ArrayList<>();
+        for (int size : SIZES) {
+            results.add(run("apns", size, count -> tokens(count, i -> String.format("%064x", i)),
+                    tokens -> apnsPushService.sendPush(tokens, "Game", "Lunch at main camp", DATA),
+                    apnsServer::arrivalNanos, apnsServer::reset));
+            results.add(run("fcm", size, count -> tokens(count, i -> "token-" + i),
+                    tokens -> fcmPushService.sendPush(tokens, "Game", "Lunch at main camp", DATA),
+                    fcmServer::arrivalNanos, fcmServer::reset));
+        }
+
+        System.out.printf("%n%-6s %8s %10s %12s %9s %9s %9s %12s%n",
+                "", "tokens", "total ms", "tokens/s", "p50 ms", "p95 ms", "p99 ms", "peak heap MB");
+        for (Result r : results) {
+            System.out.printf("%-6s %8d %10.1f %12.0f %9.1f %9.1f %9.1f %12.1f%n", r.platform(), r.tokens(),
+                    r.totalMillis(), r.tokens() * 1000.0 / r.totalMillis(), r.p50Millis(), r.p95Millis(),
+                    r.p99Millis(), r.peakHeapBytes() / 1024.0 / 1024.0);
+        }
+    }
+
+    private Result run(String platform, int size, Function<Integer, List<String>> tokenFactory,
+                       Function<List<String>, PushDeliveryResult> send,
+                       Supplier<Collection<Long>> arrivals, Runnable reset) {
+        send.apply(tokenFactory.apply(WARMUP_TOKENS));
+        reset.run();
+
+        List<String> tokens = tokenFactory.apply(size);
+        HeapSampler sampler = new HeapSampler();
+        long start = System.nanoTime();
+        PushDeliveryResult result = send.apply(tokens);
+        long elapsed = System.nanoTime() - start;
+        long peakHeap = sampler.stop();
+
+        assertEquals(size, result.delivered(), platform + " should deliver every token");
+        assertEquals(List.of(), result.retryableTokens(), platform + " should not hit transport errors");
+        long[] latencies = arrivals.get().stream().mapToLong(arrival -> arrival - start).sorted().toArray();
+        reset.run();
+        return new Result(platform, size, elapsed / 1e6, percentile(latencies, 50), percentile(latencies, 95),
+                percentile(latencies, 99), peakHeap);
+    }
+
+    private static List<String> tokens(int count, Function<Integer, String> token) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(token.apply(i));
+        }
+        return tokens;
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    /** Samples used heap every few milliseconds; reports the peak above the level at start. */
+    private static final class HeapSampler {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicLong peak = new AtomicLong();
+        private final long baseline;
+        private final Thread thread;
+
+        HeapSampler() {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+            thread = new Thread(() -> {
+                while (running.get()) {
+                    peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long stop() {
+            running.set(false);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Math.max(0, peak.get() - baseline);
+        }
+    }
+
+    private record Result(String platform, int tokens, double totalMillis, double p50Millis, double p95Millis,
+                          double p99Millis, long peakHeapBytes) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.dbv.scoutmission.service;
+
+import com.dbv.scoutmission.config.PushProperties;
+import com.dbv.scoutmission.entity.PushPlatform;
+import com.dbv.scoutmission.entity.SubmissionStatus;
+import com.dbv.scoutmission.event.SubmissionReviewedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewPushCoalescerTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final PushDispatcher pushDispatcher = mock(PushDispatcher.class);
+    private final PushProperties properties = new PushProperties();
+    private final UUID gameId = UUID.randomUUID();
+    private final UUID teamId = UUID.randomUUID();
+    private ReviewPushCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        when(notificationService.resolvePushTokens(gameId, teamId))
+                .thenReturn(Map.of(PushPlatform.ios, List.of("a"), PushPlatform.android, List.of()));
+        coalescer = new ReviewPushCoalescer(notificationService, pushDispatcher,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+    }
+
+    @Test
+    void sendsReviewsOfOneTeamWithinTheWindowAsOnePush() {
+        properties.setReviewCoalesceWindow(Duration.ZERO);
+        coalescer.onSubmissionReviewed(review("Flag", SubmissionStatus.approved));
+        coalescer.onSubmissionReviewed(review("Knots", SubmissionStatus.rejected));
+
+        coalescer.flushDue();
+        coalescer.flushDue();
+
+        ArgumentCaptor<PushMessage> message = ArgumentCaptor.forClass(PushMessage.class);
+        verify(pushDispatcher).dispatch(eq(gameId), eq(ReviewPushCoalescer.PUSH_KIND), eq(teamId), anyMap(),
+                message.capture());
+        assertEquals("2 submissions were reviewed: 1 approved, 1 rejected", message.getValue().body());
+        assertEquals(teamId.toString(), message.getValue().data().get("teamId"));
+    }
+
+    @Test
+    void holdsReviewsUntilTheWindowHasPassed() {
+        properties.setReviewCoalesceWindow(Duration.ofMinutes(1));
+        coalescer.onSubmissionReviewed(review("Flag", SubmissionStatus.approved));
+
+        coalescer.flushDue();
+
+        verify(pushDispatcher, never()).dispatch(any(), anyString(), any(), anyMap(), any());
+    }
+
+    @Test
+    void describesASingleReview() {
+        PushMessage message = ReviewPushCoalescer.message(List.of(review("Flag", SubmissionStatus.approved)));
+
+        assertEquals("Your submission for Flag was approved", message.body());
+    }
+
+    private SubmissionReviewedEvent review(String challengeTitle, SubmissionStatus status) {
+        return new SubmissionReviewedEvent(gameId, "Game", teamId, UUID.randomUUID(), challengeTitle, status);
+    }
+}
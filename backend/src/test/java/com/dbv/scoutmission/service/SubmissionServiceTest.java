@@ -4,7 +4,6 @@ import com.dbv.scoutmission.dto.request.CreateSubmissionRequest;
 import com.dbv.scoutmission.dto.response.SubmissionResponse;
 import com.dbv.scoutmission.entity.*;
 import com.dbv.scoutmission.repository.*;
-import com.dbv.scoutmission.websocket.GameEventBroadcaster;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -45,7 +45,7 @@ class SubmissionServiceTest {
     @Mock
     private ActivityEventRepository activityEventRepository;
     @Mock
-    private GameEventBroadcaster eventBroadcaster;
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private GameAccessService gameAccessService;
     @Mock
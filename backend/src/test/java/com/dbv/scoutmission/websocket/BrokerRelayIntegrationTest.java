@@ -0,0 +1,131 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import com.dbv.scoutmission.repository.TeamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two relay handlers stand in for two backend nodes sharing one external broker: a frame
+ * broadcast on node A must reach a client subscribed through node B.
+ * <p>
+ * Needs a STOMP broker, e.g. {@code docker compose --profile relay up activemq}, and
+ * {@code STOMP_RELAY_HOST} (optionally {@code STOMP_RELAY_PORT}) set; skipped otherwise.
+ */
+@EnabledIfEnvironmentVariable(named = "STOMP_RELAY_HOST", matches = ".+")
+class BrokerRelayIntegrationTest {
+
+    private final List<StompBrokerRelayMessageHandler> relays = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        relays.forEach(StompBrokerRelayMessageHandler::stop);
+    }
+
+    @Test
+    void broadcastOnOneNodeReachesSubscriberOnAnother() throws Exception {
+        UUID gameId = UUID.randomUUID();
+        String destination = "/topic/games/" + gameId;
+
+        Node nodeA = startNode();
+        Node nodeB = startNode();
+
+        String sessionId = "client-" + UUID.randomUUID();
+        nodeB.inbound.send(clientFrame(StompCommand.CONNECT, sessionId, accessor -> {
+            accessor.setAcceptVersion("1.2");
+            accessor.setLogin("guest");
+            accessor.setPasscode("guest");
+        }));
+        assertEquals(StompCommand.CONNECTED, nextCommand(nodeB));
+
+        nodeB.inbound.send(clientFrame(StompCommand.SUBSCRIBE, sessionId, accessor -> {
+            accessor.setDestination(destination);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setReceipt("subscribed");
+        }));
+        assertEquals(StompCommand.RECEIPT, nextCommand(nodeB));
+
+        SimpMessagingTemplate template = new SimpMessagingTemplate(nodeA.brokerChannel);
+        GameFrameCodec frameCodec = new GameFrameCodec(new ObjectMapper());
+        GameEventBroadcaster broadcaster = new GameEventBroadcaster(template,
+                new GameEventReplayBuffer(new WebSocketProperties()),
+                new GameFanOutMetrics(new SimpleMeterRegistry()),
+                frameCodec, new FrameEncodingInterceptor(frameCodec), mock(TeamRepository.class));
+        broadcaster.broadcastLocationUpdate(gameId, new GameEventFrame.LocationData(gameId, 1.0, 2.0, null, null, null));
+
+        Message<?> received = nodeB.outbound.poll(10, TimeUnit.SECONDS);
+        assertNotNull(received, "frame broadcast on node A never reached node B");
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(received);
+        assertEquals(StompCommand.MESSAGE, accessor.getCommand());
+        assertEquals(sessionId, accessor.getSessionId());
+        String body = new String((byte[]) received.getPayload(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("\"type\":\"location\""), body);
+    }
+
+    private Node startNode() throws InterruptedException {
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        BlockingQueue<Message<?>> outbound = new LinkedBlockingQueue<>();
+        outboundChannel.subscribe(outbound::add);
+
+        StompBrokerRelayMessageHandler relay =
+                new StompBrokerRelayMessageHandler(inbound, outboundChannel, brokerChannel, List.of("/topic"));
+        relay.setRelayHost(System.getenv("STOMP_RELAY_HOST"));
+        relay.setRelayPort(Integer.parseInt(System.getenv().getOrDefault("STOMP_RELAY_PORT", "61613")));
+        relay.start();
+        relays.add(relay);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!relay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(relay.isBrokerAvailable(), "STOMP broker is not reachable");
+        return new Node(inbound, brokerChannel, outbound);
+    }
+
+    private Message<byte[]> clientFrame(StompCommand command, String sessionId,
+                                        Consumer<StompHeaderAccessor> customizer) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(new HashMap<>());
+        customizer.accept(accessor);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private StompCommand nextCommand(Node node) throws InterruptedException {
+        Message<?> message = node.outbound.poll(10, TimeUnit.SECONDS);
+        assertNotNull(message, "no reply from broker");
+        return StompHeaderAccessor.wrap(message).getCommand();
+    }
+
+    private record Node(ExecutorSubscribableChannel inbound, ExecutorSubscribableChannel brokerChannel,
+                        BlockingQueue<Message<?>> outbound) {
+    }
+}
@@ -0,0 +1,288 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import com.dbv.scoutmission.repository.TeamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the STOMP stack in-process (simple broker, bounded outbound pool, session send limits)
+ * with hundreds of simulated subscribers, a few of which have stopped reading. Fast subscribers
+ * must receive every frame while the stalled ones are evicted.
+ * <p>
+ * A stalled session blocks its first MESSAGE send until it is closed, like a socket write on a
+ * full TCP window. Later frames for it are buffered by Spring's session decorator until the send
+ * time or buffer limit is exceeded. Eviction therefore needs free outbound threads to deliver
+ * those later frames, so the pool is larger than the number of stalled sessions (as in production,
+ * where it is 16 threads).
+ */
+class GameBroadcastLoadTest {
+
+    private static final int FAST_SUBSCRIBERS = 400;
+    private static final int SLOW_SUBSCRIBERS = 10;
+    private static final int FRAMES = 100;
+    private static final int OUTBOUND_THREADS = 16;
+    /** Upper bound on a stalled send, standing in for the container's async send timeout. */
+    private static final long STALL_TIMEOUT_MS = 10_000;
+
+    private final UUID gameId = UUID.randomUUID();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GameFanOutMetrics fanOutMetrics = new GameFanOutMetrics(meterRegistry);
+    private final SlowConsumerEvictionTracker evictionTracker = new SlowConsumerEvictionTracker(meterRegistry);
+
+    private ThreadPoolTaskExecutor outboundExecutor;
+    private SimpleBrokerMessageHandler broker;
+    private SubProtocolWebSocketHandler subProtocolHandler;
+    private WebSocketHandler handler;
+    private GameEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        // Inbound is synchronous so a SUBSCRIBE is registered by the time handleMessage returns
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        outboundExecutor = new ThreadPoolTaskExecutor();
+        outboundExecutor.setCorePoolSize(OUTBOUND_THREADS);
+        outboundExecutor.setMaxPoolSize(OUTBOUND_THREADS);
+        outboundExecutor.setQueueCapacity(FAST_SUBSCRIBERS * FRAMES * 2);
+        outboundExecutor.initialize();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel(outboundExecutor);
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+
+        broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel, List.of("/topic"));
+        broker.start();
+
+        StompSubProtocolHandler stompHandler = new StompSubProtocolHandler();
+        stompHandler.setApplicationEventPublisher(event -> {
+            if (event instanceof SessionSubscribeEvent subscribe) {
+                fanOutMetrics.onSubscribe(subscribe);
+            } else if (event instanceof SessionUnsubscribeEvent unsubscribe) {
+                fanOutMetrics.onUnsubscribe(unsubscribe);
+            } else if (event instanceof SessionDisconnectEvent disconnect) {
+                fanOutMetrics.onDisconnect(disconnect);
+            }
+        });
+        subProtocolHandler = new SubProtocolWebSocketHandler(inbound, outbound);
+        subProtocolHandler.setDefaultProtocolHandler(stompHandler);
+        subProtocolHandler.setSendTimeLimit(200);
+        subProtocolHandler.setSendBufferSizeLimit(4 * 1024);
+        subProtocolHandler.start();
+        handler = evictionTracker.decorate(subProtocolHandler);
+
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        WebSocketProperties properties = new WebSocketProperties();
+        GameFrameCodec frameCodec = new GameFrameCodec(new ObjectMapper());
+        broadcaster = new GameEventBroadcaster(template, new GameEventReplayBuffer(properties), fanOutMetrics,
+                frameCodec, new FrameEncodingInterceptor(frameCodec), mock(TeamRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        subProtocolHandler.stop();
+        broker.stop();
+        outboundExecutor.shutdown();
+    }
+
+    @Test
+    void slowSubscribersAreEvictedWithoutStallingFanOut() throws Exception {
+        CountDownLatch fastDone = new CountDownLatch(FAST_SUBSCRIBERS);
+        List<FakeSession> fast = new ArrayList<>();
+        List<FakeSession> slow = new ArrayList<>();
+        for (int i = 0; i < FAST_SUBSCRIBERS; i++) {
+            fast.add(connectAndSubscribe(new FakeSession("fast-" + i, false, fastDone)));
+        }
+        for (int i = 0; i < SLOW_SUBSCRIBERS; i++) {
+            slow.add(connectAndSubscribe(new FakeSession("slow-" + i, true, null)));
+        }
+        assertEquals(FAST_SUBSCRIBERS + SLOW_SUBSCRIBERS, fanOutMetrics.subscriberCount(gameId));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            broadcaster.broadcastLocationUpdate(gameId, new GameEventFrame.LocationData(
+                    UUID.randomUUID(), 1.0, 2.0, String.valueOf(i), null, null));
+        }
+
+        assertTrue(fastDone.await(15, TimeUnit.SECONDS), "fast subscribers did not receive every frame");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (FakeSession session : fast) {
+            assertEquals(FRAMES, session.messages.get(), session.getId());
+        }
+        for (FakeSession session : slow) {
+            assertTrue(session.closedLatch.await(5, TimeUnit.SECONDS), session.getId() + " was not evicted");
+            assertEquals(CloseStatus.SESSION_NOT_RELIABLE.getCode(), session.closeStatus.getCode());
+        }
+        assertEquals(SLOW_SUBSCRIBERS, evictionTracker.evictionCount());
+        assertEquals(FAST_SUBSCRIBERS, fanOutMetrics.subscriberCount(gameId));
+        assertEquals(FRAMES, meterRegistry.get("scoutmission.websocket.fanout")
+                .tag("gameId", gameId.toString()).summary().count());
+        // Stalled sessions hold a thread until evicted; fan-out to everyone else must not wait on them
+        assertTrue(elapsedMs < STALL_TIMEOUT_MS / 2, "fan-out took " + elapsedMs + "ms");
+    }
+
+    private FakeSession connectAndSubscribe(FakeSession session) throws Exception {
+        session.handler = handler;
+        handler.afterConnectionEstablished(session);
+        handler.handleMessage(session, new TextMessage("CONNECT\naccept-version:1.2\nhost:localhost\n\n\u0000"));
+        handler.handleMessage(session, new TextMessage(
+                "SUBSCRIBE\nid:sub-0\ndestination:/topic/games/" + gameId + "\n\n\u0000"));
+        return session;
+    }
+
+    private static final class FakeSession implements WebSocketSession {
+        private final String id;
+        private final boolean stalled;
+        private final CountDownLatch doneLatch;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private final AtomicInteger messages = new AtomicInteger();
+        private final CountDownLatch closedLatch = new CountDownLatch(1);
+        private volatile WebSocketHandler handler;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private volatile CloseStatus closeStatus;
+
+        FakeSession(String id, boolean stalled, CountDownLatch doneLatch) {
+            this.id = id;
+            this.stalled = stalled;
+            this.doneLatch = doneLatch;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws java.io.IOException {
+            boolean frame = message instanceof TextMessage text && text.getPayload().startsWith("MESSAGE");
+            if (frame && stalled) {
+                try {
+                    closedLatch.await(STALL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new java.io.IOException("Stalled send aborted");
+            }
+            if (frame && messages.incrementAndGet() == FRAMES && doneLatch != null) {
+                doneLatch.countDown();
+            }
+        }
+
+        @Override
+        public void close(CloseStatus status) throws java.io.IOException {
+            if (!open.compareAndSet(true, false)) {
+                return;
+            }
+            closeStatus = status;
+            // Mirror the container, which reports the close back to the handler
+            try {
+                handler.afterConnectionClosed(this, status);
+            } catch (Exception ex) {
+                throw new java.io.IOException(ex);
+            }
+            closedLatch.countDown();
+        }
+
+        @Override
+        public void close() throws java.io.IOException {
+            close(CloseStatus.NORMAL);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open.get();
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return URI.create("ws://localhost/ws");
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return 64 * 1024;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return 64 * 1024;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+    }
+}
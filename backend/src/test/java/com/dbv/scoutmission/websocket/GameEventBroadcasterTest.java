@@ -0,0 +1,51 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import com.dbv.scoutmission.repository.TeamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class GameEventBroadcasterTest {
+
+    private final UUID gameId = UUID.randomUUID();
+    private final String topic = GameEventBroadcaster.gameTopic(gameId);
+    private final GameEventReplayBuffer replayBuffer = new GameEventReplayBuffer(new WebSocketProperties());
+    private final GameFrameCodec frameCodec = new GameFrameCodec(new ObjectMapper());
+    private final GameEventBroadcaster broadcaster = new GameEventBroadcaster(mock(SimpMessagingTemplate.class),
+            replayBuffer, new GameFanOutMetrics(new SimpleMeterRegistry()), frameCodec,
+            new FrameEncodingInterceptor(frameCodec), mock(TeamRepository.class));
+
+    @Test
+    void countersOfActiveTopicsSurviveIdleEviction() {
+        broadcaster.broadcastLeaderboardUpdate(gameId, List.of());
+        broadcaster.evictIdleSequences();
+        broadcaster.broadcastLeaderboardUpdate(gameId, List.of());
+
+        assertEquals(List.of(1L, 2L), seqs());
+    }
+
+    @Test
+    void forgottenTopicsRestartAboveTheLastSeq() {
+        broadcaster.broadcastLeaderboardUpdate(gameId, List.of());
+        broadcaster.broadcastLeaderboardUpdate(gameId, List.of());
+        broadcaster.forgetGame(gameId);
+        assertTrue(seqs().isEmpty());
+
+        broadcaster.broadcastLeaderboardUpdate(gameId, List.of());
+
+        assertEquals(List.of(3L), seqs());
+    }
+
+    private List<Long> seqs() {
+        return replayBuffer.framesAfter(topic, 0).stream().map(GameFrameCodec.EncodedFrame::seq).toList();
+    }
+}
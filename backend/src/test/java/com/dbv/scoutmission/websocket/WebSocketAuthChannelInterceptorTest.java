@@ -0,0 +1,81 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.entity.UserRole;
+import com.dbv.scoutmission.repository.GameRepository;
+import com.dbv.scoutmission.repository.PlayerRepository;
+import com.dbv.scoutmission.repository.UserRepository;
+import com.dbv.scoutmission.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WebSocketAuthChannelInterceptorTest {
+
+    private final UUID gameId = UUID.randomUUID();
+    private final UUID teamId = UUID.randomUUID();
+    private final WebSocketAuthCache authCache = mock(WebSocketAuthCache.class);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private WebSocketAuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new WebSocketAuthChannelInterceptor(mock(JwtTokenProvider.class), mock(UserRepository.class),
+                mock(PlayerRepository.class), mock(GameRepository.class), authCache);
+        when(authCache.canUserAccessGame(any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void playerMaySubscribeToOwnTeamTopic() {
+        assertDoesNotThrow(() -> subscribe(player(), GameEventBroadcaster.teamTopic(gameId, teamId)));
+    }
+
+    @Test
+    void playerMayNotSubscribeToAnotherTeamOrTheGameTopic() {
+        Object player = player();
+
+        assertThrows(AccessDeniedException.class,
+                () -> subscribe(player, GameEventBroadcaster.teamTopic(gameId, UUID.randomUUID())));
+        assertThrows(AccessDeniedException.class, () -> subscribe(player, GameEventBroadcaster.gameTopic(gameId)));
+    }
+
+    @Test
+    void patternsAndUnknownTopicsAreRejectedForEveryone() {
+        Object operator = new WebSocketAuthChannelInterceptor.WebSocketUserPrincipal(UUID.randomUUID(), UserRole.admin);
+        for (Object principal : List.of(player(), operator)) {
+            for (String destination : List.of("/topic/**", "/topic/>", "/topic/games/" + gameId + "/teams/*",
+                    "/topic/games/{gameId}", "/topic/other", "/topic/games/" + gameId + "/teams/" + teamId + "/x")) {
+                assertThrows(AccessDeniedException.class, () -> subscribe(principal, destination), destination);
+            }
+        }
+        assertDoesNotThrow(() -> subscribe(operator, GameEventBroadcaster.gameTopic(gameId)));
+    }
+
+    private Object player() {
+        return new WebSocketAuthChannelInterceptor.WebSocketPlayerPrincipal(UUID.randomUUID(), gameId, teamId);
+    }
+
+    private void subscribe(Object principal, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        interceptor.preSend(message, channel);
+    }
+}
@@ -0,0 +1,147 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.config.WebSocketProperties;
+import com.dbv.scoutmission.entity.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSocketSessionRegistryTest {
+
+    private final UUID gameId = UUID.randomUUID();
+    private final WebSocketProperties properties = new WebSocketProperties();
+    private final MutableClock clock = new MutableClock();
+    private WebSocketSessionRegistry registry;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        registry = new WebSocketSessionRegistry(properties, new SimpleMeterRegistry(), clock);
+        handler = registry.decorate(mock(WebSocketHandler.class));
+    }
+
+    @Test
+    void countsPlayerAndOperatorSessionsPerGame() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        open("player-1");
+        connected("player-1", new WebSocketAuthChannelInterceptor.WebSocketPlayerPrincipal(
+                playerId, gameId, UUID.randomUUID()));
+        open("operator-1");
+        connected("operator-1", new WebSocketAuthChannelInterceptor.WebSocketUserPrincipal(
+                UUID.randomUUID(), UserRole.operator));
+        subscribed("operator-1", GameEventBroadcaster.gameTopic(gameId));
+        open("operator-2");
+        connected("operator-2", new WebSocketAuthChannelInterceptor.WebSocketUserPrincipal(
+                UUID.randomUUID(), UserRole.operator));
+        subscribed("operator-2", GameEventBroadcaster.gameTopic(UUID.randomUUID()));
+
+        WebSocketSessionRegistry.ConnectionCounts counts = registry.connectionCounts(gameId);
+        assertEquals(1, counts.players());
+        assertEquals(1, counts.operators());
+        assertEquals(Set.of(playerId), registry.connectedPlayerIds(gameId));
+
+        handler.afterConnectionClosed(session("player-1"), CloseStatus.NORMAL);
+        assertTrue(registry.connectedPlayerIds(gameId).isEmpty());
+        assertEquals(0, registry.connectionCounts(gameId).players());
+    }
+
+    @Test
+    void closesSessionsThatStopSendingFrames() throws Exception {
+        properties.getHeartbeat().setIdleTimeout(Duration.ofMillis(200));
+        WebSocketSession silent = open("silent");
+        WebSocketSession alive = open("alive");
+
+        clock.advance(Duration.ofMillis(300));
+        handler.handleMessage(alive, new TextMessage("\n"));
+        registry.closeIdleSessions();
+
+        verify(silent).close(WebSocketSessionRegistry.IDLE_TIMEOUT);
+        verify(alive, never()).close(any());
+        assertEquals(1, registry.sessionCount());
+    }
+
+    private WebSocketSession open(String sessionId) throws Exception {
+        WebSocketSession session = session(sessionId);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private WebSocketSession session(String sessionId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        return session;
+    }
+
+    private void connected(String sessionId, Object principal) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        headers.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+        registry.onConnected(new SessionConnectedEvent(this, message, authentication(principal)));
+    }
+
+    private void subscribed(String sessionId, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId("sub-0");
+        headers.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+        registry.onSubscribe(new SessionSubscribeEvent(this, message));
+    }
+
+    private static Principal authentication(Object principal) {
+        return new UsernamePasswordAuthenticationToken(principal, null);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
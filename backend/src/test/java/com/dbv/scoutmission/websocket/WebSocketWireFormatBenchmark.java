@@ -0,0 +1,208 @@
+package com.dbv.scoutmission.websocket;
+
+import com.dbv.scoutmission.dto.response.NotificationResponse;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares what one subscriber receives for a typical game's event mix on the SockJS endpoint
+ * and on the native endpoint (JSON or CBOR, with and without permessage-deflate), in bytes on
+ * the wire including WebSocket frame headers and in CPU time spent encoding per session.
+ * <p>
+ * The deflate rows are estimates: they compress with {@link Deflater} the way RFC 7692 describes,
+ * not with the servlet container's permessage-deflate, whose window size, compression level and
+ * flush behaviour may differ.
+ * <p>
+ * Excluded from the regular test run; use {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class WebSocketWireFormatBenchmark {
+
+    private static final int EVENTS = 2000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final MimeType CBOR = MimeType.valueOf("application/cbor");
+
+    // Built like Spring Boot's mapper: a plain ObjectMapper, which GameFrameCodec can copy for CBOR
+    private final GameFrameCodec frameCodec = new GameFrameCodec(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build());
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private final Jackson2SockJsMessageCodec sockJsCodec = new Jackson2SockJsMessageCodec();
+
+    private List<GameFrameCodec.EncodedFrame> frames;
+
+    @BeforeEach
+    void setUp() {
+        frames = typicalEventMix(new Random(42));
+    }
+
+    @Test
+    void compareWireFormats() {
+        Map<String, Function<GameFrameCodec.EncodedFrame, byte[]>> variants = new LinkedHashMap<>();
+        variants.put("sockjs json", this::sockJs);
+        variants.put("native json", frame -> stomp(frame.json(), MimeTypeUtils.APPLICATION_JSON));
+        variants.put("native cbor", frame -> stomp(frame.cbor(), CBOR));
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        variants.forEach((name, encoder) -> results.put(name, run(encoder, false)));
+        results.put("native json + deflate (est.)", run(variants.get("native json"), true));
+        results.put("native cbor + deflate (est.)", run(variants.get("native cbor"), true));
+
+        long baseline = results.get("sockjs json").bytes();
+        System.out.printf("%n%d events (60%% location, 20%% activity, 15%% progress-cell, 5%% notification)%n", EVENTS);
+        System.out.printf("%-30s %12s %8s %12s%n", "variant", "bytes", "vs sockjs", "cpu us/event");
+        results.forEach((name, result) -> System.out.printf("%-30s %12d %7.0f%% %12.2f%n",
+                name, result.bytes(), 100.0 * result.bytes() / baseline, result.cpuMicrosPerEvent()));
+
+        long nativeJson = results.get("native json").bytes();
+        assertTrue(nativeJson < baseline, "native framing should be smaller than SockJS");
+        assertTrue(results.get("native cbor").bytes() < nativeJson, "CBOR should be smaller than JSON");
+        assertTrue(results.get("native json + deflate (est.)").bytes() < nativeJson * 0.7,
+                "deflate should save at least 30% on repetitive game frames");
+    }
+
+    /**
+     * Encodes the event mix for one session, as the outbound channel would. Deflate keeps its
+     * window across messages (context takeover), approximating the container's permessage-deflate.
+     */
+    private Result run(Function<GameFrameCodec.EncodedFrame, byte[]> encoder, boolean deflate) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long bytes = 0;
+        long cpuNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            PerMessageDeflate session = deflate ? new PerMessageDeflate() : null;
+            long roundBytes = 0;
+            long start = threads.getCurrentThreadCpuTime();
+            for (GameFrameCodec.EncodedFrame frame : frames) {
+                byte[] payload = encoder.apply(frame);
+                roundBytes += wsFrameLength(session != null ? session.compress(payload) : payload);
+            }
+            if (session != null) {
+                session.end();
+            }
+            if (round >= WARMUP_ROUNDS) {
+                cpuNanos += threads.getCurrentThreadCpuTime() - start;
+                bytes = roundBytes;
+            }
+        }
+        return new Result(bytes, cpuNanos / 1000.0 / MEASURED_ROUNDS / EVENTS);
+    }
+
+    private byte[] stomp(byte[] payload, MimeType contentType) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        headers.setDestination("/topic/games/6f1c1f7e-3b8a-4d55-9a55-0c5a0d0e8a11");
+        headers.setSubscriptionId("sub-0");
+        headers.setMessageId("a1b2c3d4-1");
+        headers.setContentType(contentType);
+        return stompEncoder.encode(MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+    }
+
+    private byte[] sockJs(GameFrameCodec.EncodedFrame frame) {
+        String stompFrame = new String(stomp(frame.json(), MimeTypeUtils.APPLICATION_JSON), StandardCharsets.UTF_8);
+        return sockJsCodec.encode(stompFrame).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Server frames are unmasked: 2 header bytes, plus 2 or 8 for the extended length. */
+    private static int wsFrameLength(byte[] payload) {
+        int length = payload.length;
+        return length + (length < 126 ? 2 : length < 65536 ? 4 : 10);
+    }
+
+    private List<GameFrameCodec.EncodedFrame> typicalEventMix(Random random) {
+        UUID gameId = UUID.randomUUID();
+        List<UUID> teams = new ArrayList<>();
+        List<UUID> bases = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            teams.add(UUID.randomUUID());
+            bases.add(UUID.randomUUID());
+        }
+        String node = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+
+        List<GameFrameCodec.EncodedFrame> mix = new ArrayList<>(EVENTS);
+        for (int seq = 1; seq <= EVENTS; seq++) {
+            UUID team = teams.get(random.nextInt(teams.size()));
+            UUID base = bases.get(random.nextInt(bases.size()));
+            Instant at = now.plusMillis(seq * 250L);
+            int roll = random.nextInt(100);
+            GameEventFrame frame;
+            if (roll < 60) {
+                frame = new GameEventFrame("location", seq, node, new GameEventFrame.LocationData(team,
+                        38.7 + random.nextDouble() / 100, -9.1 - random.nextDouble() / 100, at.toString(),
+                        random.nextInt(5) == 0 ? base : null, null));
+            } else if (roll < 80) {
+                frame = new GameEventFrame("activity", seq, node, new GameEventFrame.ActivityData(UUID.randomUUID(),
+                        gameId, "submission", team, base, UUID.randomUUID(),
+                        "Team " + teams.indexOf(team) + " submitted answer for Challenge " + bases.indexOf(base),
+                        at.toString()));
+            } else if (roll < 95) {
+                frame = new GameEventFrame("progress-cell", seq, node,
+                        new GameEventFrame.ProgressCellData(team, base, "submitted", "pending"));
+            } else {
+                frame = new GameEventFrame("notification", seq, node, NotificationResponse.builder()
+                        .id(UUID.randomUUID())
+                        .gameId(gameId)
+                        .message("Everyone head back to the main camp for lunch in 15 minutes")
+                        .sentAt(at)
+                        .sentBy(UUID.randomUUID())
+                        .build());
+            }
+            mix.add(frameCodec.encode(frame, true));
+        }
+        return mix;
+    }
+
+    private record Result(long bytes, double cpuMicrosPerEvent) {
+    }
+
+    /** RFC 7692 compression of one message: raw deflate, sync flush, trailing 0x00 0x00 0xff 0xff dropped. */
+    private static final class PerMessageDeflate {
+
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final byte[] buffer = new byte[8192];
+
+        byte[] compress(byte[] payload) {
+            deflater.setInput(payload);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length);
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, written);
+            } while (written == buffer.length);
+            byte[] compressed = out.toByteArray();
+            return Arrays.copyOf(compressed, compressed.length - 4);
+        }
+
+        void end() {
+            deflater.end();
+        }
+    }
+}